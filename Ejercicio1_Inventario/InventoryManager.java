@@ -144,12 +144,16 @@ public class InventoryManager implements IScript {
             return false;
         }
 
+        InventoryTableEvent event = new InventoryTableEvent("addRow", null);
+        event.begin();
         int newRow = tbl.addRow();
         tbl.setInt(ProductColumns.PRODUCT_ID.getColName(), newRow, id);
         tbl.setString(ProductColumns.PRODUCT_NAME.getColName(), newRow, name);
         tbl.setString(ProductColumns.CATEGORY.getColName(), newRow, category);
         tbl.setInt(ProductColumns.QUANTITY.getColName(), newRow, quantity);
         tbl.setDouble(ProductColumns.UNIT_PRICE.getColName(), newRow, price);
+        event.end();
+        commitIfSlow(event, tbl);
 
         OConsole.oprint("Product added: " + name + " (ID: " + id + ")\n");
         return true;
@@ -196,7 +200,12 @@ public class InventoryManager implements IScript {
             throw new IllegalArgumentException("Quantity cannot be negative.");
         }
         sortByColumn(tbl, ProductColumns.PRODUCT_ID);
+
+        InventoryTableEvent event = new InventoryTableEvent("findInt", ProductColumns.PRODUCT_ID.getColName());
+        event.begin();
         int row = tbl.findInt(ProductColumns.PRODUCT_ID.getColName(), productId, SEARCH_ENUM.FIRST_IN_GROUP);
+        event.end();
+        commitIfSlow(event, tbl);
 
         if (row > 0) {
             tbl.setInt(ProductColumns.QUANTITY.getColName(), row, newQuantity);
@@ -236,14 +245,54 @@ public class InventoryManager implements IScript {
     }
 
     /**
-     * Sorts the specified table by the given product column.
+     * Sorts the specified table by the given product column. Sorts slower than
+     * the {@link InventoryTableEvent} threshold are recorded as a Java Flight
+     * Recorder event.
      *
      * @param tbl    the table to be sorted
      * @param column the column by which to sort the table
      * @throws OException if an error occurs during sorting
      */
     public void sortByColumn(Table tbl, ProductColumns column) throws OException {
+        InventoryTableEvent event = new InventoryTableEvent("sortCol", column.getColName());
+        event.begin();
         tbl.sortCol(column.getColName());
+        event.end();
+        commitIfSlow(event, tbl);
+    }
+
+    /**
+     * Commits a timed {@link InventoryTableEvent} if it is enabled and exceeded
+     * its threshold. The table shape is only read in that case, so calls below
+     * the threshold do not pay for it.
+     *
+     * @param event the event, already ended
+     * @param tbl   the table the operation ran on
+     * @throws OException if the table shape cannot be read
+     */
+    private void commitIfSlow(InventoryTableEvent event, Table tbl) throws OException {
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        Map<String, Integer> typeCounts = new LinkedHashMap<>();
+        int numCols = tbl.getNumCols();
+        for (int col = 1; col <= numCols; col++) {
+            typeCounts.merge(COL_TYPE_ENUM.fromInt(tbl.getColType(col)).name(), 1, Integer::sum);
+        }
+
+        StringBuilder columnTypes = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : typeCounts.entrySet()) {
+            if (columnTypes.length() > 0) {
+                columnTypes.append(',');
+            }
+            columnTypes.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+
+        event.rowCount = tbl.getNumRows();
+        event.columnCount = numCols;
+        event.columnTypes = columnTypes.toString();
+        event.commit();
     }
 
 }
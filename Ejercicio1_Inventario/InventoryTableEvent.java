@@ -0,0 +1,57 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event emitted around the product table operations of
+ * {@link InventoryManager}: {@code sortCol}, {@code findInt} and the
+ * {@code addRow} of every product added.
+ * <p>
+ * Calls that take less than the threshold (1 ms by default, configurable per
+ * recording with {@code inventory.TableOperation#threshold}) are not recorded.
+ * The table shape fields are only filled in once the event is known to be
+ * committed, so cheap calls pay for nothing beyond two timestamps.
+ * </p>
+ *
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * java -XX:StartFlightRecording=filename=inventory.jfr ...
+ * java JfrOperationSummary inventory.jfr
+ * </pre>
+ * </p>
+ */
+@Name("inventory.TableOperation")
+@Label("Inventory Table Operation")
+@Category({ "Ejercicio1", "Inventory" })
+@Description("A sortCol, findInt or addRow call on the product table that exceeded the threshold.")
+@Threshold("1 ms")
+@StackTrace(false)
+public class InventoryTableEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Column")
+    String column;
+
+    @Label("Row Count")
+    int rowCount;
+
+    @Label("Column Count")
+    int columnCount;
+
+    @Label("Column Types")
+    @Description("Number of columns of each type, e.g. COL_INT=2,COL_STRING=2,COL_DOUBLE=1.")
+    String columnTypes;
+
+    InventoryTableEvent(String operation, String column) {
+        this.operation = operation;
+        this.column = column;
+    }
+}
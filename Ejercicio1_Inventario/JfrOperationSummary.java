@@ -0,0 +1,180 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes where time went in a Java Flight Recorder recording, per custom
+ * event type and operation.
+ * <p>
+ * Reads a {@code .jfr} file with {@link RecordingFile} and groups every event
+ * whose type name does not start with {@code jdk.} (or, if given, starts with
+ * the requested prefix) by event type, {@code operation} and
+ * {@code implementation} fields. Intended for the {@link InventoryTableEvent}
+ * events of this exercise and the {@code merge.*} events of
+ * {@code Ejercicio2_CombinarTablas}.
+ * </p>
+ *
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * java JfrOperationSummary inventory.jfr
+ * java JfrOperationSummary merge.jfr merge.
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * Sample output:
+ *
+ * <pre>
+ * operation                                   count    total ms    mean us     max us   share       rows
+ * merge.CombineRows combineRows (OpenJVS)         1      932.31  932307.69     932307   68.3%     200000
+ * inventory.TableOperation sortCol               44      412.71    9379.78      45791   30.2%     800016
+ * inventory.TableOperation addRow                 4       20.82    5205.29       7871    1.5%      34577
+ * Total recorded time: 1365 ms
+ * </pre>
+ * </p>
+ */
+public final class JfrOperationSummary {
+
+    private JfrOperationSummary() {
+    }
+
+    /**
+     * Time spent in one event type and operation.
+     */
+    public static final class OperationStats {
+        private final String operation;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long rows;
+
+        OperationStats(String operation) {
+            this.operation = operation;
+        }
+
+        void add(long nanos, long rowCount) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            rows += rowCount;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return the sum of the {@code rowCount} field of the events, or 0 if
+         *         the event type has none
+         */
+        public long getRows() {
+            return rows;
+        }
+    }
+
+    /**
+     * Reads a recording and groups its custom events by operation.
+     *
+     * @param recording  the {@code .jfr} file
+     * @param namePrefix only events whose type name starts with this prefix are
+     *                   included; if null, every event type outside
+     *                   {@code jdk.*}
+     * @return the statistics of every operation, by descending total time
+     * @throws IOException if the recording cannot be read
+     */
+    public static List<OperationStats> summarize(Path recording, String namePrefix) throws IOException {
+        if (recording == null) {
+            throw new IllegalArgumentException("Recording file cannot be null.");
+        }
+
+        Map<String, OperationStats> byOperation = new LinkedHashMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String typeName = event.getEventType().getName();
+                if (namePrefix == null ? typeName.startsWith("jdk.") : !typeName.startsWith(namePrefix)) {
+                    continue;
+                }
+
+                String key = operationKey(event, typeName);
+                long rowCount = event.hasField("rowCount") ? event.getLong("rowCount") : 0;
+                byOperation.computeIfAbsent(key, OperationStats::new)
+                        .add(event.getDuration().toNanos(), rowCount);
+            }
+        }
+
+        List<OperationStats> stats = new ArrayList<>(byOperation.values());
+        stats.sort(Comparator.comparingLong(OperationStats::getTotalNanos).reversed());
+        return stats;
+    }
+
+    private static String operationKey(RecordedEvent event, String typeName) {
+        StringBuilder key = new StringBuilder(typeName);
+        if (event.hasField("operation")) {
+            key.append(' ').append(event.getString("operation"));
+        }
+        if (event.hasField("implementation")) {
+            key.append(" (").append(event.getString("implementation")).append(')');
+        }
+        return key.toString();
+    }
+
+    /**
+     * Prints the summary of a recording.
+     *
+     * @param args the {@code .jfr} file and, optionally, an event name prefix
+     * @throws IOException if the recording cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: java JfrOperationSummary <recording.jfr> [event-name-prefix]");
+            System.exit(2);
+        }
+
+        List<OperationStats> stats = summarize(Path.of(args[0]), args.length == 2 ? args[1] : null);
+        if (stats.isEmpty()) {
+            System.out.println("No matching events in " + args[0] + ".");
+            return;
+        }
+
+        long total = 0;
+        for (OperationStats s : stats) {
+            total += s.getTotalNanos();
+        }
+
+        System.out.printf("%-42s %6s %11s %10s %10s %7s %10s%n",
+                "operation", "count", "total ms", "mean us", "max us", "share", "rows");
+        for (OperationStats s : stats) {
+            System.out.printf("%-42s %6d %11.2f %10.2f %10d %6.1f%% %10d%n",
+                    s.getOperation(),
+                    s.getCount(),
+                    s.getTotalNanos() / 1_000_000.0,
+                    s.getTotalNanos() / 1_000.0 / s.getCount(),
+                    s.getMaxNanos() / 1_000,
+                    total == 0 ? 0.0 : s.getTotalNanos() * 100.0 / total,
+                    s.getRows());
+        }
+        System.out.println("Total recorded time: " + Duration.ofNanos(total).toMillis() + " ms");
+    }
+}
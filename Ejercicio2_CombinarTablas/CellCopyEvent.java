@@ -0,0 +1,41 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event emitted around every
+ * {@code CustomerTableMergerOpenJVS.copyCell} call.
+ * <p>
+ * A cell copy normally takes well under a microsecond, so only copies slower
+ * than the threshold (100 us by default, configurable per recording with
+ * {@code merge.CopyCell#threshold}) are recorded; they point at the column type
+ * and rows where the OpenJVS table access is slow.
+ * </p>
+ */
+@Name("merge.CopyCell")
+@Label("Copy Cell")
+@Category({ "Ejercicio2", "Table Merge" })
+@Description("A copyCell call that exceeded the threshold.")
+@Threshold("100 us")
+@StackTrace(false)
+public class CellCopyEvent extends Event {
+
+    @Label("Operation")
+    String operation = "copyCell";
+
+    @Label("Column Type")
+    String columnType;
+
+    @Label("Source Row")
+    int sourceRow;
+
+    @Label("Source Column")
+    int sourceColumn;
+
+    @Label("Target Column")
+    int targetColumn;
+}
@@ -1,5 +1,7 @@
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Utility class for merging selected columns from two JTable instances into a
@@ -150,6 +152,11 @@ public class CustomerTableMergerJTable {
      * {@code tableB} using {@code columnsB}.
      * </p>
      *
+     * <p>
+     * Merges slower than the {@link TableMergeEvent} threshold are recorded as a
+     * Java Flight Recorder event with the row count and column type mix.
+     * </p>
+     *
      * @param tableA        the first JTable to combine rows from
      * @param tableB        the second JTable to combine rows from
      * @param columnsA      the indices of columns to extract from {@code tableA}
@@ -166,6 +173,9 @@ public class CustomerTableMergerJTable {
 
         int numRows = Math.min(tableA.getRowCount(), tableB.getRowCount());
 
+        TableMergeEvent event = new TableMergeEvent("JTable");
+        event.begin();
+
         for (int row = 0; row < numRows; row++) {
             Object[] combinedRow = new Object[10];
 
@@ -176,5 +186,58 @@ public class CustomerTableMergerJTable {
 
             combinedModel.addRow(combinedRow);
         }
+
+        event.end();
+        if (event.shouldCommit()) {
+            Map<String, Integer> typeCounts = new LinkedHashMap<>();
+            for (int i = 0; i < 5; i++) {
+                typeCounts.merge(valueTypeName(tableA, columnsA[i]), 1, Integer::sum);
+                typeCounts.merge(valueTypeName(tableB, columnsB[i]), 1, Integer::sum);
+            }
+            event.rowCount = numRows;
+            event.columnCount = combinedModel.getColumnCount();
+            event.columnTypes = formatTypeCounts(typeCounts);
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the class name of the first non-null cell of a column.
+     * <p>
+     * {@link JTable#getColumnClass(int)} is {@code Object} for every column of a
+     * {@link DefaultTableModel}, so the type is taken from the values instead.
+     * </p>
+     *
+     * @param table  the table to inspect
+     * @param column the index of the column
+     * @return the simple class name of the first non-null value, or
+     *         {@code Object} if the column has no values
+     */
+    private static String valueTypeName(JTable table, int column) {
+        for (int row = 0; row < table.getRowCount(); row++) {
+            Object value = table.getValueAt(row, column);
+            if (value != null) {
+                return value.getClass().getSimpleName();
+            }
+        }
+        return Object.class.getSimpleName();
+    }
+
+    /**
+     * Formats column type counts as {@code Type=count} pairs separated by
+     * commas, in first-seen order.
+     *
+     * @param typeCounts the number of columns of each class
+     * @return the formatted column type mix
+     */
+    private static String formatTypeCounts(Map<String, Integer> typeCounts) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : typeCounts.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return sb.toString();
     }
 }
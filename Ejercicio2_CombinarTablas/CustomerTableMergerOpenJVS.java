@@ -1,5 +1,7 @@
 import com.olf.openjvs.*;
 import com.olf.openjvs.enums.COL_TYPE_ENUM;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Utility class for merging two customer-related tables by selecting specific
@@ -168,6 +170,8 @@ public class CustomerTableMergerOpenJVS {
      * <li>Copies five columns from tableB (specified by columnsB) into the next
      * five columns of the new row.</li>
      * </ul>
+     * Merges slower than the {@link TableMergeEvent} threshold are recorded as a
+     * Java Flight Recorder event with the row count and column type mix.
      *
      * @param tableA        The first source table.
      * @param tableB        The second source table.
@@ -183,6 +187,9 @@ public class CustomerTableMergerOpenJVS {
 
         int numRows = Math.min(tableA.getNumRows(), tableB.getNumRows());
 
+        TableMergeEvent event = new TableMergeEvent("OpenJVS");
+        event.begin();
+
         for (int row = 1; row <= numRows; row++) {
             int newRow = combinedTable.addRow();
 
@@ -194,11 +201,25 @@ public class CustomerTableMergerOpenJVS {
                 copyCell(tableB, columnsB[i], row, combinedTable, i + 6, newRow, colTypeB);
             }
         }
+
+        event.end();
+        if (event.shouldCommit()) {
+            Map<String, Integer> typeCounts = new LinkedHashMap<>();
+            for (int i = 0; i < 5; i++) {
+                typeCounts.merge(COL_TYPE_ENUM.fromInt(tableA.getColType(columnsA[i])).name(), 1, Integer::sum);
+                typeCounts.merge(COL_TYPE_ENUM.fromInt(tableB.getColType(columnsB[i])).name(), 1, Integer::sum);
+            }
+            event.rowCount = numRows;
+            event.columnCount = combinedTable.getNumCols();
+            event.columnTypes = formatTypeCounts(typeCounts);
+            event.commit();
+        }
     }
 
     /**
      * Copies a cell value from a source table to a target table, handling different
-     * column types.
+     * column types. Copies slower than the {@link CellCopyEvent} threshold are
+     * recorded as a Java Flight Recorder event.
      *
      * @param source  The source {@link Table} from which to copy the cell value.
      * @param srcCol  The column index in the source table.
@@ -216,6 +237,9 @@ public class CustomerTableMergerOpenJVS {
             Table target, int tgtCol, int tgtRow,
             int colType) throws OException {
 
+        CellCopyEvent event = new CellCopyEvent();
+        event.begin();
+
         switch (COL_TYPE_ENUM.fromInt(colType)) {
             case COL_INT:
                 target.setInt(tgtCol, tgtRow, source.getInt(srcCol, srcRow));
@@ -233,5 +257,32 @@ public class CustomerTableMergerOpenJVS {
                 target.setString(tgtCol, tgtRow, source.getString(srcCol, srcRow));
                 break;
         }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.columnType = COL_TYPE_ENUM.fromInt(colType).name();
+            event.sourceRow = srcRow;
+            event.sourceColumn = srcCol;
+            event.targetColumn = tgtCol;
+            event.commit();
+        }
+    }
+
+    /**
+     * Formats column type counts as {@code TYPE=count} pairs separated by
+     * commas, in first-seen order.
+     *
+     * @param typeCounts the number of columns of each type
+     * @return the formatted column type mix
+     */
+    private static String formatTypeCounts(Map<String, Integer> typeCounts) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : typeCounts.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return sb.toString();
     }
 }
@@ -0,0 +1,45 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event emitted around the {@code combineRows} step of
+ * {@link CustomerTableMergerJTable} and {@link CustomerTableMergerOpenJVS}.
+ * <p>
+ * Merges that take less than the threshold (10 ms by default, configurable per
+ * recording with {@code merge.CombineRows#threshold}) are not recorded. The
+ * column type mix is only computed once the event is known to be committed.
+ * </p>
+ */
+@Name("merge.CombineRows")
+@Label("Combine Rows")
+@Category({ "Ejercicio2", "Table Merge" })
+@Description("A combineRows call that exceeded the threshold.")
+@Threshold("10 ms")
+@StackTrace(false)
+public class TableMergeEvent extends Event {
+
+    @Label("Operation")
+    String operation = "combineRows";
+
+    @Label("Implementation")
+    String implementation;
+
+    @Label("Row Count")
+    int rowCount;
+
+    @Label("Column Count")
+    int columnCount;
+
+    @Label("Column Types")
+    @Description("Number of merged columns of each type, e.g. COL_INT=4,COL_STRING=6 (OpenJVS). JTable reports the class of the first non-null value of each column, e.g. Integer=4,String=6, or Object for empty columns.")
+    String columnTypes;
+
+    TableMergeEvent(String implementation) {
+        this.implementation = implementation;
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Loads transformed price records into the target store (step 4 of the
+ * pipeline design).
+ * <p>
+ * A load is started with {@link #begin(IdempotencyKey)}. Records are written to
+ * a staging area through the returned {@link LoadSession} and only become
+ * visible when the session is committed. Beginning a load whose key was already
+ * committed returns a session that ignores every write, so reprocessing a file
+ * is a no-op.
+ * </p>
+ */
+public interface BulkLoader {
+
+    /**
+     * Starts a load.
+     *
+     * @param key the idempotency key of the file being loaded
+     * @return the session used to stage and commit the records
+     * @throws PipelineException with category {@link ErrorCategory#SYSTEM} if the
+     *                           staging area cannot be prepared
+     */
+    LoadSession begin(IdempotencyKey key) throws PipelineException;
+
+    /**
+     * Resumes a load interrupted by a crash, keeping everything it already
+     * staged. Behaves like {@link #begin(IdempotencyKey)} if nothing was staged.
+     *
+     * @param key the idempotency key of the file being loaded
+     * @return the session used to stage the remaining records and commit
+     * @throws PipelineException with category {@link ErrorCategory#SYSTEM} if the
+     *                           staging area cannot be prepared
+     */
+    LoadSession resume(IdempotencyKey key) throws PipelineException;
+
+    /**
+     * @param key the idempotency key of a file
+     * @return {@code true} if a load with that key was already committed
+     */
+    boolean isLoaded(IdempotencyKey key);
+}
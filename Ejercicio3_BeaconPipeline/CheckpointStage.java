@@ -0,0 +1,38 @@
+import java.io.IOException;
+
+/**
+ * Last pipeline stage of the incremental mode. It runs after {@link LoadStage},
+ * when a chunk is already durably staged, and records the chunk in a
+ * {@link ChunkCheckpointStore} so a crashed run can skip it on resume.
+ */
+public class CheckpointStage implements PipelineStage {
+
+    private final ChunkCheckpointStore checkpoints;
+
+    /**
+     * @param checkpoints the checkpoint log of the run (must not be null)
+     * @throws IllegalArgumentException if {@code checkpoints} is null
+     */
+    public CheckpointStage(ChunkCheckpointStore checkpoints) {
+        if (checkpoints == null) {
+            throw new IllegalArgumentException("Checkpoint store cannot be null.");
+        }
+        this.checkpoints = checkpoints;
+    }
+
+    @Override
+    public String getName() {
+        return "checkpoint";
+    }
+
+    @Override
+    public PriceChunk process(PriceChunk chunk) throws PipelineException {
+        try {
+            checkpoints.record(chunk);
+        } catch (IOException e) {
+            throw new PipelineException(ErrorCategory.SYSTEM,
+                    "Cannot checkpoint chunk " + chunk.getSequence() + ".", e);
+        }
+        return chunk;
+    }
+}
@@ -0,0 +1,180 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Append-only log of the chunks of a file that were durably staged, used to
+ * resume a crashed run without re-parsing and re-validating those chunks.
+ * <p>
+ * Each checkpoint stores the chunk sequence together with the
+ * {@code (instrument_id, date, content hash)} of every row the chunk staged, so
+ * a resumed run can restore the {@link ContentHashStore} entries of the skipped
+ * chunks. Records are length-prefixed and forced to disk one by one; a record
+ * cut short by a crash is truncated when the log is reopened.
+ * </p>
+ *
+ * <p>
+ * The log also stores the chunk size of the run. Chunk sequences are only
+ * meaningful for that size, so a log written with another size is discarded.
+ * </p>
+ */
+public class ChunkCheckpointStore implements Closeable {
+
+    private static final int MAGIC = 0x45434b50; // "ECKP"
+    private static final int HEADER_BYTES = 8;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final BitSet completedChunks = new BitSet();
+
+    /**
+     * Receives the rows restored from the checkpoints of completed chunks.
+     */
+    @FunctionalInterface
+    public interface CheckpointedRowVisitor {
+        void visit(String instrumentId, long epochDay, long contentHash);
+    }
+
+    private ChunkCheckpointStore(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the checkpoint log of a run, creating it if needed, and replays the
+     * rows of every completed chunk.
+     *
+     * @param file      the log file
+     * @param chunkSize the chunk size of the run
+     * @param visitor   receives every row of every completed chunk
+     * @return the open log
+     * @throws IOException if the log cannot be read or created
+     */
+    public static ChunkCheckpointStore open(Path file, int chunkSize, CheckpointedRowVisitor visitor)
+            throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ChunkCheckpointStore store = new ChunkCheckpointStore(file, channel);
+        try {
+            store.load(chunkSize, visitor);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * @return the sequences of the chunks that were checkpointed by earlier runs
+     */
+    public BitSet getCompletedChunks() {
+        return (BitSet) completedChunks.clone();
+    }
+
+    /**
+     * Appends the checkpoint of a staged chunk and forces it to disk.
+     *
+     * @param chunk the chunk, holding the records it staged
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public synchronized void record(PriceChunk chunk) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + chunk.getRecords().size() * 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0); // length placeholder
+            out.writeLong(chunk.getSequence());
+            out.writeInt(chunk.getRecords().size());
+            for (PriceRecord record : chunk.getRecords()) {
+                out.writeUTF(record.getInstrumentId());
+                out.writeLong(record.getEpochDay());
+                out.writeLong(ContentHashStore.contentHash(record));
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        buffer.putInt(0, buffer.remaining() - Integer.BYTES);
+        channel.position(channel.size());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        completedChunks.set(Math.toIntExact(chunk.getSequence()));
+    }
+
+    /**
+     * Closes and deletes the log once its run has been committed or abandoned.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    public synchronized void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void load(int chunkSize, CheckpointedRowVisitor visitor) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES || readInt(0) != MAGIC || readInt(4) != chunkSize) {
+            reset(chunkSize);
+            return;
+        }
+
+        long position = HEADER_BYTES;
+        while (position + Integer.BYTES <= size) {
+            int length = readInt(position);
+            long end = position + Integer.BYTES + length;
+            if (length <= 0 || end > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + Integer.BYTES);
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array()))) {
+                long sequence = in.readLong();
+                int rows = in.readInt();
+                for (int i = 0; i < rows; i++) {
+                    visitor.visit(in.readUTF(), in.readLong(), in.readLong());
+                }
+                completedChunks.set(Math.toIntExact(sequence));
+            }
+            position = end;
+        }
+
+        // Drop a trailing record cut short by a crash so new records append cleanly.
+        channel.truncate(position);
+    }
+
+    private void reset(int chunkSize) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(chunkSize).flip();
+        channel.write(header, 0);
+        channel.force(false);
+    }
+
+    private int readInt(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+        readFully(buffer, position);
+        return buffer.getInt(0);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of checkpoint log " + file);
+            }
+        }
+    }
+}
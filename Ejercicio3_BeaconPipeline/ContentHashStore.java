@@ -0,0 +1,201 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Compact, file-backed store of the content hash last loaded for every
+ * {@code (instrument_id, date)} key.
+ * <p>
+ * Keys are packed with {@link DuplicateKeyDetector#packKey(int, long)} using an
+ * {@link InstrumentDictionary} that is saved with the store, and hashes are
+ * 64-bit FNV-1a values of the price, currency and market of a row. Entries live
+ * in a {@link LongLongHashMap}, so each key costs two {@code long}s in memory.
+ * </p>
+ *
+ * <p>
+ * Hashes of a run are first staged with {@link #stage(String, long, long)} and
+ * only become part of the store on {@link #commit()}, which rewrites the file
+ * atomically. A failed run therefore never marks its rows as loaded.
+ * </p>
+ *
+ * <p>
+ * All methods are thread-safe.
+ * </p>
+ */
+public class ContentHashStore {
+
+    private static final int MAGIC = 0x45484153; // "EHAS"
+    private static final int VERSION = 1;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Path file;
+    private final InstrumentDictionary dictionary = new InstrumentDictionary();
+    private final LongLongHashMap committed;
+    private final LongLongHashMap pending = new LongLongHashMap(1 << 12);
+
+    private ContentHashStore(Path file, LongLongHashMap committed) {
+        this.file = file;
+        this.committed = committed;
+    }
+
+    /**
+     * Opens the store saved in a file, or an empty store if the file does not
+     * exist yet.
+     *
+     * @param file the file of the store
+     * @return the store
+     * @throws IOException if the file exists but cannot be read
+     */
+    public static ContentHashStore open(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Store file cannot be null.");
+        }
+        if (!Files.exists(file)) {
+            return new ContentHashStore(file, new LongLongHashMap(1 << 16));
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported content hash store: " + file);
+            }
+
+            int instruments = in.readInt();
+            String[] instrumentIds = new String[instruments];
+            for (int i = 0; i < instruments; i++) {
+                instrumentIds[i] = in.readUTF();
+            }
+
+            int entries = in.readInt();
+            ContentHashStore store = new ContentHashStore(file, new LongLongHashMap(entries));
+            for (String instrumentId : instrumentIds) {
+                store.dictionary.idOf(instrumentId);
+            }
+            for (int i = 0; i < entries; i++) {
+                store.committed.put(in.readLong(), in.readLong());
+            }
+            return store;
+        }
+    }
+
+    /**
+     * Computes the content hash of a record from the fields that define a price
+     * change: price, currency and market.
+     *
+     * @param record the record
+     * @return the 64-bit FNV-1a hash of the record content
+     */
+    public static long contentHash(PriceRecord record) {
+        long hash = FNV_OFFSET_BASIS;
+        long priceBits = Double.doubleToLongBits(record.getPrice());
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash = (hash ^ ((priceBits >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        hash = mix(hash, record.getCurrency());
+        hash = (hash ^ 0xFF) * FNV_PRIME;
+        return mix(hash, record.getMarket());
+    }
+
+    /**
+     * Checks whether a key was committed with the same content hash.
+     *
+     * @param instrumentId the external instrument id
+     * @param epochDay     the date as days since 1970-01-01
+     * @param hash         the content hash of the row
+     * @return {@code true} if the row is identical to the one last loaded
+     */
+    public synchronized boolean isUnchanged(String instrumentId, long epochDay, long hash) {
+        long key = DuplicateKeyDetector.packKey(dictionary.idOf(instrumentId), epochDay);
+        return committed.containsKey(key) && committed.get(key, 0L) == hash;
+    }
+
+    /**
+     * Records the hash of a row of the current run. It becomes visible to
+     * {@link #isUnchanged(String, long, long)} only after {@link #commit()}.
+     *
+     * @param instrumentId the external instrument id
+     * @param epochDay     the date as days since 1970-01-01
+     * @param hash         the content hash of the row
+     */
+    public synchronized void stage(String instrumentId, long epochDay, long hash) {
+        pending.put(DuplicateKeyDetector.packKey(dictionary.idOf(instrumentId), epochDay), hash);
+    }
+
+    /**
+     * Merges the staged hashes into the store and saves it. The file is written
+     * to a temporary file and renamed, so a crash leaves either the old or the
+     * new store on disk.
+     *
+     * @throws IOException if the store cannot be saved; the file keeps the
+     *                     previous store in that case
+     */
+    public synchronized void commit() throws IOException {
+        committed.putAll(pending);
+        pending.clear();
+        save();
+    }
+
+    /**
+     * Drops the hashes staged by the current run.
+     */
+    public synchronized void discardPending() {
+        pending.clear();
+    }
+
+    /**
+     * @return the number of committed keys
+     */
+    public synchronized int size() {
+        return committed.size();
+    }
+
+    private void save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(dictionary.size());
+                for (int id = 0; id < dictionary.size(); id++) {
+                    out.writeUTF(dictionary.instrumentOf(id));
+                }
+                out.writeInt(committed.size());
+                IOException[] failure = new IOException[1];
+                committed.forEach((key, hash) -> {
+                    if (failure[0] != null) {
+                        return;
+                    }
+                    try {
+                        out.writeLong(key);
+                        out.writeLong(hash);
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                });
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static long mix(long hash, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipeline stage of the incremental mode that drops rows identical to the ones
+ * already loaded by a previous run.
+ * <p>
+ * Each record's content hash is compared against the {@link ContentHashStore}.
+ * Unchanged rows are removed from the chunk; new or changed rows are passed
+ * downstream and their hashes are staged in the store, to be committed with the
+ * load.
+ * </p>
+ */
+public class DeltaFilterStage implements PipelineStage {
+
+    private final ContentHashStore hashStore;
+    private final AtomicLong unchangedRows = new AtomicLong();
+
+    /**
+     * @param hashStore the store of previously loaded hashes (must not be null)
+     * @throws IllegalArgumentException if {@code hashStore} is null
+     */
+    public DeltaFilterStage(ContentHashStore hashStore) {
+        if (hashStore == null) {
+            throw new IllegalArgumentException("Content hash store cannot be null.");
+        }
+        this.hashStore = hashStore;
+    }
+
+    @Override
+    public String getName() {
+        return "delta";
+    }
+
+    @Override
+    public PriceChunk process(PriceChunk chunk) {
+        List<PriceRecord> records = chunk.getRecords();
+        List<PriceRecord> changed = new ArrayList<>(records.size());
+
+        for (PriceRecord record : records) {
+            long hash = ContentHashStore.contentHash(record);
+            if (hashStore.isUnchanged(record.getInstrumentId(), record.getEpochDay(), hash)) {
+                unchangedRows.incrementAndGet();
+            } else {
+                hashStore.stage(record.getInstrumentId(), record.getEpochDay(), hash);
+                changed.add(record);
+            }
+        }
+
+        return chunk.withRecords(changed);
+    }
+
+    /**
+     * @return the number of rows dropped because they did not change
+     */
+    public long getUnchangedRows() {
+        return unchangedRows.get();
+    }
+}
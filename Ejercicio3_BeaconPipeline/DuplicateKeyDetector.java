@@ -0,0 +1,398 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Single-pass detector of duplicate {@code (instrument_id, date)} pairs in an
+ * EoD price file.
+ * <p>
+ * Each key is packed into a primitive {@code long}: the upper 32 bits hold the
+ * {@link InstrumentDictionary} id of the instrument and the lower 32 bits hold
+ * the epoch day of the date. No object is allocated per row.
+ * </p>
+ *
+ * <p>
+ * The detector works in two modes:
+ * <ul>
+ * <li><b>In memory:</b> a {@link LongLongHashMap} keeps the lowest row number
+ * seen for every key. When a key repeats, the higher of the two rows is
+ * reported as a duplicate right away.</li>
+ * <li><b>Spill:</b> once the map holds more than {@code maxInMemoryKeys} keys,
+ * its {@code (key, lowest row)} pairs are written to disk as a sorted run and
+ * every following {@code (key, row)} pair is buffered, sorted and spilled in
+ * fixed-size runs. {@link #finish()} merges the runs and reports every row of a
+ * key except the lowest one.</li>
+ * </ul>
+ * Both modes report exactly the same rows, whatever the order in which rows are
+ * added, so callers such as {@link ValidationStage} may add the rows of several
+ * chunks concurrently (with external synchronization) and out of order.
+ * </p>
+ *
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * try (DuplicateKeyDetector detector = new DuplicateKeyDetector()) {
+ *     detector.add(1, "AAPL", LocalDate.parse("2025-08-01").toEpochDay());
+ *     detector.add(2, "AAPL", LocalDate.parse("2025-08-01").toEpochDay());
+ *     long[] duplicateRows = detector.finish(); // { 2 }
+ * }
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class DuplicateKeyDetector implements Closeable {
+
+    public static final int DEFAULT_MAX_IN_MEMORY_KEYS = 4_000_000;
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+    /**
+     * Value returned by the in-memory map for keys not seen yet. Row numbers are
+     * never negative.
+     */
+    private static final long NO_ROW = -1L;
+
+    private final InstrumentDictionary dictionary;
+    private final int maxInMemoryKeys;
+    private final int runSize;
+    private final Path spillDirectory;
+
+    private LongLongHashMap lowestRows;
+    private boolean spilling;
+
+    private long[] runKeys;
+    private long[] runRows;
+    private int runCount;
+    private final List<Path> runFiles = new ArrayList<>();
+
+    private long[] duplicateRows = new long[16];
+    private int duplicateCount;
+    private boolean finished;
+
+    /**
+     * Creates a detector with the default in-memory limit that spills to the
+     * system temporary directory.
+     */
+    public DuplicateKeyDetector() {
+        this(new InstrumentDictionary(), DEFAULT_MAX_IN_MEMORY_KEYS, DEFAULT_RUN_SIZE,
+                Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Creates a detector.
+     *
+     * @param dictionary      the dictionary used to turn instrument ids into ints
+     * @param maxInMemoryKeys the number of distinct keys kept in memory before
+     *                        switching to spill mode
+     * @param runSize         the number of {@code (key, row)} pairs sorted and
+     *                        written per spill run
+     * @param spillDirectory  the directory where spill runs are created
+     * @throws IllegalArgumentException if any argument is null or a limit is not
+     *                                  positive
+     */
+    public DuplicateKeyDetector(InstrumentDictionary dictionary, int maxInMemoryKeys, int runSize,
+            Path spillDirectory) {
+        if (dictionary == null || spillDirectory == null) {
+            throw new IllegalArgumentException("Dictionary and spill directory cannot be null.");
+        }
+        if (maxInMemoryKeys <= 0 || runSize <= 0) {
+            throw new IllegalArgumentException("In-memory key limit and run size must be positive.");
+        }
+
+        this.dictionary = dictionary;
+        this.maxInMemoryKeys = maxInMemoryKeys;
+        this.runSize = runSize;
+        this.spillDirectory = spillDirectory;
+        this.lowestRows = new LongLongHashMap(Math.min(maxInMemoryKeys, 1 << 16));
+    }
+
+    /**
+     * Packs an instrument dictionary id and an epoch day into a single key.
+     *
+     * @param instrumentKey the dictionary id of the instrument
+     * @param epochDay      the date as days since 1970-01-01
+     * @return the packed key
+     * @throws IllegalArgumentException if {@code epochDay} does not fit in 32 bits
+     */
+    public static long packKey(int instrumentKey, long epochDay) {
+        if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Epoch day out of range: " + epochDay);
+        }
+        return ((long) instrumentKey << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Registers the key of a row.
+     *
+     * @param rowNumber    the row number in the file
+     * @param instrumentId the external instrument id of the row
+     * @param epochDay     the date of the row as days since 1970-01-01
+     * @throws IOException           if a spill run cannot be written
+     * @throws IllegalStateException if {@link #finish()} was already called
+     */
+    public void add(long rowNumber, String instrumentId, long epochDay) throws IOException {
+        add(rowNumber, packKey(dictionary.idOf(instrumentId), epochDay));
+    }
+
+    /**
+     * Registers an already packed key.
+     *
+     * @param rowNumber the row number in the file (must not be negative)
+     * @param key       the key built with {@link #packKey(int, long)}
+     * @throws IOException           if a spill run cannot be written
+     * @throws IllegalStateException if {@link #finish()} was already called
+     */
+    public void add(long rowNumber, long key) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Detector already finished.");
+        }
+        if (rowNumber < 0) {
+            throw new IllegalArgumentException("Row number cannot be negative: " + rowNumber);
+        }
+
+        if (!spilling) {
+            long lowestRow = lowestRows.get(key, NO_ROW);
+            if (lowestRow == NO_ROW) {
+                lowestRows.put(key, rowNumber);
+                if (lowestRows.size() > maxInMemoryKeys) {
+                    switchToSpillMode();
+                }
+            } else if (rowNumber < lowestRow) {
+                addDuplicate(lowestRow);
+                lowestRows.put(key, rowNumber);
+            } else {
+                addDuplicate(rowNumber);
+            }
+            return;
+        }
+
+        runKeys[runCount] = key;
+        runRows[runCount] = rowNumber;
+        if (++runCount == runSize) {
+            spillRun();
+        }
+    }
+
+    /**
+     * @return {@code true} if the detector has switched to the disk-based mode
+     */
+    public boolean isSpilling() {
+        return spilling;
+    }
+
+    /**
+     * Completes detection and returns the row numbers of every duplicate row, in
+     * ascending order. The lowest row number of a key is never reported, even if
+     * it was added after a higher one.
+     *
+     * @return the duplicate row numbers
+     * @throws IOException           if the spill runs cannot be read
+     * @throws IllegalStateException if called more than once
+     */
+    public long[] finish() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Detector already finished.");
+        }
+        finished = true;
+
+        if (isSpilling()) {
+            if (runCount > 0) {
+                spillRun();
+            }
+            runKeys = null;
+            runRows = null;
+            mergeRuns();
+        }
+        lowestRows = null;
+
+        long[] result = Arrays.copyOf(duplicateRows, duplicateCount);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Deletes every spill run created by this detector.
+     *
+     * @throws IOException if a run file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        for (Path run : runFiles) {
+            Files.deleteIfExists(run);
+        }
+        runFiles.clear();
+    }
+
+    private void switchToSpillMode() throws IOException {
+        long[] keys = new long[lowestRows.size()];
+        long[] rows = new long[keys.length];
+        int[] count = { 0 };
+        lowestRows.forEach((key, row) -> {
+            keys[count[0]] = key;
+            rows[count[0]] = row;
+            count[0]++;
+        });
+        sortPairs(keys, rows, keys.length);
+        writeRun(keys, rows, keys.length);
+
+        lowestRows = null;
+        spilling = true;
+        runKeys = new long[runSize];
+        runRows = new long[runSize];
+        runCount = 0;
+    }
+
+    private void spillRun() throws IOException {
+        sortPairs(runKeys, runRows, runCount);
+        writeRun(runKeys, runRows, runCount);
+        runCount = 0;
+    }
+
+    private void writeRun(long[] keys, long[] rows, int count) throws IOException {
+        Path run = Files.createTempFile(spillDirectory, "dup-keys-", ".run");
+        runFiles.add(run);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            for (int i = 0; i < count; i++) {
+                out.writeLong(keys[i]);
+                out.writeLong(rows[i]);
+            }
+        }
+    }
+
+    private void mergeRuns() throws IOException {
+        PriorityQueue<RunReader> heads = new PriorityQueue<>(Math.max(1, runFiles.size()));
+        try {
+            for (Path run : runFiles) {
+                RunReader reader = new RunReader(run);
+                if (reader.advance()) {
+                    heads.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+
+            boolean hasPrevious = false;
+            long previousKey = 0L;
+            while (!heads.isEmpty()) {
+                RunReader reader = heads.poll();
+                if (hasPrevious && reader.key == previousKey) {
+                    addDuplicate(reader.row);
+                } else {
+                    previousKey = reader.key;
+                    hasPrevious = true;
+                }
+
+                if (reader.advance()) {
+                    heads.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+        } finally {
+            for (RunReader reader : heads) {
+                reader.close();
+            }
+        }
+    }
+
+    private void addDuplicate(long rowNumber) {
+        if (duplicateCount == duplicateRows.length) {
+            duplicateRows = Arrays.copyOf(duplicateRows, duplicateCount << 1);
+        }
+        duplicateRows[duplicateCount++] = rowNumber;
+    }
+
+    /**
+     * Sorts the first {@code count} pairs by key and then by row using an
+     * in-place heap sort, so no boxing or extra buffer is needed.
+     */
+    private static void sortPairs(long[] keys, long[] rows, int count) {
+        for (int i = count / 2 - 1; i >= 0; i--) {
+            siftDown(keys, rows, i, count);
+        }
+        for (int end = count - 1; end > 0; end--) {
+            swap(keys, rows, 0, end);
+            siftDown(keys, rows, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] keys, long[] rows, int index, int count) {
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < count && greater(keys, rows, left, largest)) {
+                largest = left;
+            }
+            if (right < count && greater(keys, rows, right, largest)) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            swap(keys, rows, index, largest);
+            index = largest;
+        }
+    }
+
+    private static boolean greater(long[] keys, long[] rows, int a, int b) {
+        return keys[a] != keys[b] ? keys[a] > keys[b] : rows[a] > rows[b];
+    }
+
+    private static void swap(long[] keys, long[] rows, int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long row = rows[a];
+        rows[a] = rows[b];
+        rows[b] = row;
+    }
+
+    /**
+     * Sequential reader over one sorted spill run.
+     */
+    private static final class RunReader implements Comparable<RunReader>, Closeable {
+        private final DataInputStream in;
+        private long key;
+        private long row;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+        }
+
+        boolean advance() throws IOException {
+            try {
+                key = in.readLong();
+                row = in.readLong();
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public int compareTo(RunReader other) {
+            int byKey = Long.compare(key, other.key);
+            return byKey != 0 ? byKey : Long.compare(row, other.row);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
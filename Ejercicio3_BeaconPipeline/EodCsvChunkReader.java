@@ -0,0 +1,140 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Reads an EoD price CSV file as a sequence of {@link PriceChunk}s of raw lines.
+ * <p>
+ * The header is checked when the reader is opened. Lines are not parsed here;
+ * parsing and validation happen in {@link ValidationStage} so they can run in
+ * parallel with reading. Row numbers are file line numbers, so the header is
+ * line 1 and the first data row is line 2; the row number of the line at index
+ * {@code i} of a chunk is {@code chunk.getFirstRowNumber() + i}.
+ * </p>
+ *
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * try (EodCsvChunkReader reader = new EodCsvChunkReader(Path.of("EoDPrices_2025-08-02.csv"), 10_000)) {
+ *     PriceChunk chunk;
+ *     while ((chunk = reader.nextChunk()) != null) {
+ *         // process chunk
+ *     }
+ * }
+ * </pre>
+ * </p>
+ */
+public class EodCsvChunkReader implements Closeable {
+
+    public static final String EXPECTED_HEADER = "instrument_id,date,price,currency,market";
+
+    private final BufferedReader reader;
+    private final int chunkSize;
+    private long lineNumber;
+    private long nextSequence;
+    private BitSet skippedChunks = new BitSet();
+    private SkippedChunkHandler skippedChunkHandler;
+
+    /**
+     * Receives the chunks that {@link #nextChunk()} skips because an earlier run
+     * already processed them.
+     */
+    @FunctionalInterface
+    public interface SkippedChunkHandler {
+        void onSkipped(PriceChunk chunk) throws PipelineException;
+    }
+
+    /**
+     * Opens the file and validates its header.
+     *
+     * @param file      the CSV file to read
+     * @param chunkSize the maximum number of rows per chunk
+     * @throws IOException              if the file cannot be opened
+     * @throws PipelineException        if the header does not match
+     *                                  {@link #EXPECTED_HEADER}
+     * @throws IllegalArgumentException if {@code file} is null or
+     *                                  {@code chunkSize} is not positive
+     */
+    public EodCsvChunkReader(Path file, int chunkSize) throws IOException, PipelineException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null.");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        this.chunkSize = chunkSize;
+
+        String header = reader.readLine();
+        lineNumber = 1;
+        if (header == null || !EXPECTED_HEADER.equals(header.trim())) {
+            reader.close();
+            throw new PipelineException(ErrorCategory.VALIDATION,
+                    "Invalid header in " + file + ": expected '" + EXPECTED_HEADER + "'.");
+        }
+    }
+
+    /**
+     * Makes {@link #nextChunk()} skip the given chunks, for example the chunks
+     * checkpointed by a crashed run. Chunk sequences depend on the chunk size, so
+     * the skipped chunks must come from a run with the same size.
+     *
+     * @param chunks  the sequences of the chunks to skip
+     * @param handler receives every skipped chunk with its raw lines
+     */
+    public void skipChunks(BitSet chunks, SkippedChunkHandler handler) {
+        if (chunks == null || handler == null) {
+            throw new IllegalArgumentException("Skipped chunks and handler cannot be null.");
+        }
+        this.skippedChunks = (BitSet) chunks.clone();
+        this.skippedChunkHandler = handler;
+    }
+
+    /**
+     * Reads the next chunk of rows that is not skipped.
+     *
+     * @return the next chunk, or {@code null} when the end of the file is reached
+     * @throws IOException       if the file cannot be read
+     * @throws PipelineException if the handler of a skipped chunk fails
+     */
+    public PriceChunk nextChunk() throws IOException, PipelineException {
+        PriceChunk chunk = readChunk();
+        while (chunk != null && skippedChunks.get(Math.toIntExact(chunk.getSequence()))) {
+            skippedChunkHandler.onSkipped(chunk);
+            chunk = readChunk();
+        }
+        return chunk;
+    }
+
+    private PriceChunk readChunk() throws IOException {
+        List<String> lines = new ArrayList<>(chunkSize);
+        long firstRow = lineNumber + 1;
+        long byteCount = 0;
+
+        String line;
+        while (lines.size() < chunkSize && (line = reader.readLine()) != null) {
+            lineNumber++;
+            // Line terminator included; exact for ASCII files such as the EoD CSV.
+            byteCount += line.length() + 1;
+            lines.add(line);
+        }
+
+        if (lines.isEmpty()) {
+            return null;
+        }
+        return new PriceChunk(nextSequence++, firstRow, byteCount, lines);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
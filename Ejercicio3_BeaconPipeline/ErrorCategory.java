@@ -0,0 +1,16 @@
+/**
+ * Enum representing the categories of errors raised by the Beacon pipeline.
+ * The design asks to tell validation errors apart from system errors so that
+ * alerts can be routed to the data provider or to operations.
+ *
+ * <ul>
+ *   <li>{@link #VALIDATION} - The file does not match the expected schema, types or rules.</li>
+ *   <li>{@link #MAPPING} - An external instrument id has no internal equivalent.</li>
+ *   <li>{@link #SYSTEM} - An I/O, storage or infrastructure failure.</li>
+ * </ul>
+ */
+public enum ErrorCategory {
+    VALIDATION,
+    MAPPING,
+    SYSTEM
+}
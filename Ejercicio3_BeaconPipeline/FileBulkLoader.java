@@ -0,0 +1,440 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * File-backed {@link BulkLoader} that stands in for the Beacon / MongoDB bulk
+ * insert API in local runs and tests.
+ * <p>
+ * Layout under the base directory:
+ * <ul>
+ * <li>{@code staging/<key>/} - batches of the load in progress, one JSON
+ * document per line.</li>
+ * <li>{@code live/<key>/} - committed loads.</li>
+ * </ul>
+ * Each chunk is split into batches of {@code batchSize} documents that are
+ * written in parallel, with at most {@code maxBatchesInFlight} batches being
+ * written at any time across all sessions. Every batch is written to a temporary
+ * file, forced to disk and renamed into place, so the staging area never holds
+ * a partial batch. {@link LoadSession#commit()} renames the whole staging
+ * directory into {@code live/} in one atomic step.
+ * </p>
+ *
+ * <p>
+ * Requires Java 21 (virtual threads).
+ * </p>
+ */
+public class FileBulkLoader implements BulkLoader, Closeable {
+
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    public static final int DEFAULT_MAX_BATCHES_IN_FLIGHT = 8;
+
+    private final Path stagingDir;
+    private final Path liveDir;
+    private final int batchSize;
+    private final Semaphore batchPermits;
+    private final ExecutorService batchWriters = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Creates a loader with the default batch size and parallelism.
+     *
+     * @param baseDir the directory holding the staging and live areas
+     * @throws IOException if the directories cannot be created
+     */
+    public FileBulkLoader(Path baseDir) throws IOException {
+        this(baseDir, DEFAULT_BATCH_SIZE, DEFAULT_MAX_BATCHES_IN_FLIGHT);
+    }
+
+    /**
+     * Creates a loader.
+     *
+     * @param baseDir            the directory holding the staging and live areas
+     * @param batchSize          the number of documents per batch
+     * @param maxBatchesInFlight the maximum number of batches written in parallel
+     * @throws IOException              if the directories cannot be created
+     * @throws IllegalArgumentException if {@code baseDir} is null or a limit is
+     *                                  not positive
+     */
+    public FileBulkLoader(Path baseDir, int batchSize, int maxBatchesInFlight) throws IOException {
+        if (baseDir == null) {
+            throw new IllegalArgumentException("Base directory cannot be null.");
+        }
+        if (batchSize <= 0 || maxBatchesInFlight <= 0) {
+            throw new IllegalArgumentException("Batch size and batches in flight must be positive.");
+        }
+
+        this.stagingDir = Files.createDirectories(baseDir.resolve("staging"));
+        this.liveDir = Files.createDirectories(baseDir.resolve("live"));
+        this.batchSize = batchSize;
+        this.batchPermits = new Semaphore(maxBatchesInFlight);
+    }
+
+    /**
+     * Starts a load. A staging directory left by an earlier run with the same key
+     * is discarded.
+     *
+     * @param key the idempotency key of the file being loaded
+     * @return the session of the load; a no-op session if the key is already live
+     * @throws PipelineException with category {@link ErrorCategory#SYSTEM} if the
+     *                           staging directory cannot be prepared
+     */
+    @Override
+    public LoadSession begin(IdempotencyKey key) throws PipelineException {
+        return open(key, false);
+    }
+
+    /**
+     * Resumes a load, keeping the batches already in its staging directory. A
+     * chunk staged again overwrites its own batch files, so resuming never
+     * duplicates documents.
+     *
+     * @param key the idempotency key of the file being loaded
+     * @return the session of the load; a no-op session if the key is already live
+     * @throws PipelineException with category {@link ErrorCategory#SYSTEM} if the
+     *                           staging directory cannot be prepared
+     */
+    @Override
+    public LoadSession resume(IdempotencyKey key) throws PipelineException {
+        return open(key, true);
+    }
+
+    @Override
+    public boolean isLoaded(IdempotencyKey key) {
+        return Files.isDirectory(liveDir.resolve(key.toString()));
+    }
+
+    private LoadSession open(IdempotencyKey key, boolean keepStaged) throws PipelineException {
+        if (key == null) {
+            throw new IllegalArgumentException("Idempotency key cannot be null.");
+        }
+        if (isLoaded(key)) {
+            return new FileLoadSession(key, null);
+        }
+
+        Path staging = stagingDir.resolve(key.toString());
+        try {
+            if (!keepStaged) {
+                deleteRecursively(staging);
+            }
+            Files.createDirectories(staging);
+        } catch (IOException e) {
+            throw new PipelineException(ErrorCategory.SYSTEM, "Cannot prepare staging area for " + key + ".", e);
+        }
+        return new FileLoadSession(key, staging);
+    }
+
+    /**
+     * @return the number of batches that can still be started without waiting
+     */
+    int availableBatchPermits() {
+        return batchPermits.availablePermits();
+    }
+
+    /**
+     * Stops the batch writer threads. Sessions must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        batchWriters.close();
+    }
+
+    private void writeBatch(Path staging, long chunkSequence, int batchIndex, List<PriceRecord> batch)
+            throws IOException {
+        StringBuilder sb = new StringBuilder(batch.size() * 160);
+        for (PriceRecord record : batch) {
+            appendDocument(sb, record);
+            sb.append('\n');
+        }
+
+        String name = "chunk-" + chunkSequence + "-batch-" + batchIndex + ".jsonl";
+        Path tmp = staging.resolve(name + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, staging.resolve(name), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Appends the Beacon document of a record as a single-line JSON object.
+     */
+    private static void appendDocument(StringBuilder sb, PriceRecord record) {
+        sb.append("{\"instrumentId\":");
+        appendJsonString(sb, record.getInternalInstrumentId());
+        sb.append(",\"externalInstrumentId\":");
+        appendJsonString(sb, record.getInstrumentId());
+        sb.append(",\"date\":\"").append(LocalDate.ofEpochDay(record.getEpochDay())).append('"');
+        sb.append(",\"price\":").append(record.getPrice());
+        sb.append(",\"currency\":");
+        appendJsonString(sb, record.getCurrency());
+        sb.append(",\"market\":");
+        appendJsonString(sb, record.getMarket());
+        sb.append(",\"sourceRow\":").append(record.getRowNumber());
+        sb.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Deletes a directory tree. Entries that disappear while it is walked are
+     * skipped.
+     */
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.deleteIfExists(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                if (e instanceof NoSuchFileException) {
+                    return FileVisitResult.CONTINUE;
+                }
+                throw e;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) throws IOException {
+                if (e != null && !(e instanceof NoSuchFileException)) {
+                    throw e;
+                }
+                Files.deleteIfExists(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Write of one batch that holds a permit of {@code batchPermits}.
+     * <p>
+     * The permit is returned by the writer thread once the write has stopped, or
+     * by {@link #done()} if the task is cancelled before it starts, so it is
+     * released exactly once and never while the batch is still being written.
+     * </p>
+     */
+    private final class BatchTask extends FutureTask<Void> {
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicBoolean permitReleased = new AtomicBoolean();
+        private final CountDownLatch stopped = new CountDownLatch(1);
+
+        BatchTask(Callable<Void> write) {
+            super(write);
+        }
+
+        @Override
+        public void run() {
+            started.set(true);
+            try {
+                super.run();
+            } finally {
+                releasePermit();
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (!started.get()) {
+                releasePermit();
+            }
+        }
+
+        /**
+         * Waits until the batch has been written, has failed or will never be
+         * started. Interrupts are deferred until it returns.
+         */
+        void awaitStopped() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    stopped.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void releasePermit() {
+            if (permitReleased.compareAndSet(false, true)) {
+                batchPermits.release();
+                stopped.countDown();
+            }
+        }
+    }
+
+    /**
+     * Session over one staging directory. A {@code null} staging directory means
+     * the key is already live and every call is a no-op.
+     */
+    private final class FileLoadSession implements LoadSession {
+        private final IdempotencyKey key;
+        private final Path staging;
+        private final AtomicLong loadedRows = new AtomicLong();
+        private final long startNanos = System.nanoTime();
+
+        FileLoadSession(IdempotencyKey key, Path staging) {
+            this.key = key;
+            this.staging = staging;
+        }
+
+        @Override
+        public void load(PriceChunk chunk) throws PipelineException {
+            if (staging == null) {
+                return;
+            }
+
+            List<PriceRecord> records = chunk.getRecords();
+            List<BatchTask> pending = new ArrayList<>();
+            try {
+                for (int from = 0, batch = 0; from < records.size(); from += batchSize, batch++) {
+                    List<PriceRecord> slice = records.subList(from, Math.min(from + batchSize, records.size()));
+                    int batchIndex = batch;
+                    // Waiting for a permit here is what bounds the batches in flight.
+                    batchPermits.acquire();
+                    BatchTask task = new BatchTask(() -> {
+                        writeBatch(staging, chunk.getSequence(), batchIndex, slice);
+                        return null;
+                    });
+                    pending.add(task);
+                    batchWriters.execute(task);
+                }
+                for (Future<?> future : pending) {
+                    future.get();
+                }
+                // get() returns just before the writer thread hands back the permit.
+                for (BatchTask task : pending) {
+                    task.awaitStopped();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopBatches(pending);
+                throw new PipelineException(ErrorCategory.SYSTEM, "Load of " + key + " interrupted.", e);
+            } catch (ExecutionException e) {
+                stopBatches(pending);
+                throw new PipelineException(ErrorCategory.SYSTEM,
+                        "Cannot stage chunk " + chunk.getSequence() + " of " + key + ".", e.getCause());
+            } catch (RuntimeException e) {
+                stopBatches(pending);
+                throw e;
+            }
+
+            loadedRows.addAndGet(records.size());
+        }
+
+        /**
+         * Cancels the batches of a failed load and waits until none of them is
+         * still writing, so the caller can abort the staging directory and the
+         * permits never exceed the in-flight limit.
+         */
+        private void stopBatches(List<BatchTask> batches) {
+            for (BatchTask batch : batches) {
+                batch.cancel(true);
+            }
+            for (BatchTask batch : batches) {
+                batch.awaitStopped();
+            }
+        }
+
+        @Override
+        public void commit() throws PipelineException {
+            if (staging == null) {
+                return;
+            }
+
+            try {
+                Files.move(staging, liveDir.resolve(key.toString()), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Another run committed the same file first; this load is redundant.
+                abort();
+            } catch (AtomicMoveNotSupportedException e) {
+                throw new PipelineException(ErrorCategory.SYSTEM,
+                        "Staging and live areas must be on the same file system.", e);
+            } catch (IOException e) {
+                throw new PipelineException(ErrorCategory.SYSTEM, "Cannot commit " + key + ".", e);
+            }
+        }
+
+        @Override
+        public void abort() {
+            if (staging == null) {
+                return;
+            }
+            try {
+                deleteRecursively(staging);
+            } catch (IOException | RuntimeException e) {
+                // Leftovers are discarded by the next begin() with the same key.
+            }
+        }
+
+        @Override
+        public boolean isAlreadyLoaded() {
+            return staging == null;
+        }
+
+        @Override
+        public long getLoadedRows() {
+            return loadedRows.get();
+        }
+
+        @Override
+        public double getRowsPerSecond() {
+            long elapsed = System.nanoTime() - startNanos;
+            return elapsed == 0 ? 0.0 : loadedRows.get() * 1_000_000_000.0 / elapsed;
+        }
+    }
+}
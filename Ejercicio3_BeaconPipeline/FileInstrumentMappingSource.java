@@ -0,0 +1,87 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link InstrumentMappingSource} that reads the equivalence table from a local
+ * CSV file.
+ * <p>
+ * The file must start with the header {@code external_id,internal_id} followed
+ * by one mapping per line. Blank lines are ignored.
+ * </p>
+ *
+ * <pre>
+ * external_id,internal_id
+ * AAPL.OQ,INST-000123
+ * MSFT.OQ,INST-000456
+ * </pre>
+ */
+public class FileInstrumentMappingSource implements InstrumentMappingSource {
+
+    private static final String HEADER = "external_id,internal_id";
+
+    private final Path file;
+
+    /**
+     * @param file the CSV file containing the equivalence table
+     * @throws IllegalArgumentException if {@code file} is null
+     */
+    public FileInstrumentMappingSource(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Mapping file cannot be null.");
+        }
+        this.file = file;
+    }
+
+    /**
+     * Reads every mapping in the file.
+     *
+     * @return a map from external instrument id to internal instrument id
+     * @throws IOException if the file cannot be read, has an invalid header, has
+     *                     a malformed line or maps the same external id to two
+     *                     different internal ids
+     */
+    @Override
+    public Map<String, String> loadAll() throws IOException {
+        Map<String, String> mappings = new HashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !HEADER.equals(header.trim())) {
+                throw new IOException("Invalid mapping file header in " + file + ": expected '" + HEADER + "'.");
+            }
+
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                int comma = line.indexOf(',');
+                if (comma < 0 || line.indexOf(',', comma + 1) >= 0) {
+                    throw new IOException("Malformed mapping at line " + lineNumber + " of " + file + ".");
+                }
+
+                String externalId = line.substring(0, comma).trim();
+                String internalId = line.substring(comma + 1).trim();
+                if (externalId.isEmpty() || internalId.isEmpty()) {
+                    throw new IOException("Empty id at line " + lineNumber + " of " + file + ".");
+                }
+
+                String previous = mappings.putIfAbsent(externalId, internalId);
+                if (previous != null && !previous.equals(internalId)) {
+                    throw new IOException("Conflicting mapping for " + externalId + " at line " + lineNumber
+                            + " of " + file + ".");
+                }
+            }
+        }
+
+        return mappings;
+    }
+}
@@ -0,0 +1,89 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+
+/**
+ * Identifies one load of an EoD file by its business date and the SHA-256 hash
+ * of its content.
+ * <p>
+ * Reprocessing the same file yields the same key, which lets a
+ * {@link BulkLoader} turn the second load into a no-op. A corrected file for the
+ * same date has a different hash and therefore a different key.
+ * </p>
+ */
+public final class IdempotencyKey {
+    private final LocalDate fileDate;
+    private final String contentHash;
+
+    public IdempotencyKey(LocalDate fileDate, String contentHash) {
+        if (fileDate == null || contentHash == null || contentHash.isEmpty()) {
+            throw new IllegalArgumentException("File date and content hash cannot be empty.");
+        }
+        this.fileDate = fileDate;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Builds the key of a file by hashing its content.
+     *
+     * @param fileDate the business date of the file
+     * @param file     the file to hash
+     * @return the idempotency key of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static IdempotencyKey forFile(LocalDate fileDate, Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return new IdempotencyKey(fileDate, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    public LocalDate getFileDate() {
+        return fileDate;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * @return a file-name safe representation, {@code <date>_<hash>}
+     */
+    @Override
+    public String toString() {
+        return fileDate + "_" + contentHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotencyKey)) {
+            return false;
+        }
+        IdempotencyKey other = (IdempotencyKey) o;
+        return fileDate.equals(other.fileDate) && contentHash.equals(other.contentHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * fileDate.hashCode() + contentHash.hashCode();
+    }
+}
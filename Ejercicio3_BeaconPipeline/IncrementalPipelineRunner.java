@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Runs the Beacon pipeline in incremental mode: only rows that are new or
+ * changed since the last committed load are sent to the loader, and a crashed
+ * run resumes from its last checkpointed chunk.
+ * <p>
+ * Stages, in order: validate, transform, delta filter, instrument mapping, load
+ * and checkpoint. The delta filter runs before mapping so unchanged rows never
+ * reach the mapping source or the loader.
+ * </p>
+ *
+ * <p>
+ * On success the load is committed first, then the checkpoint log is deleted and
+ * finally the {@link ContentHashStore} is saved. A crash between those steps
+ * only makes the next run send more rows than strictly needed.
+ * </p>
+ *
+ * <p>
+ * On failure, validation and mapping errors discard the staged data and the
+ * checkpoints because the file itself must be fixed. System errors keep both, so
+ * the next run of the same file resumes where this one stopped.
+ * </p>
+ *
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * IncrementalPipelineRunner runner = new IncrementalPipelineRunner(loader, mapper,
+ *         ContentHashStore.open(Path.of("state/hashes.bin")), Path.of("state/checkpoints"),
+ *         new StagedPipelineExecutor(4, 2), 10_000);
+ * PipelineResult result = runner.run(Path.of("EoDPrices_2025-08-02.csv"), LocalDate.of(2025, 8, 2));
+ * </pre>
+ * </p>
+ */
+public class IncrementalPipelineRunner {
+
+    private final BulkLoader loader;
+    private final InstrumentMapper mapper;
+    private final ContentHashStore hashStore;
+    private final Path checkpointDir;
+    private final StagedPipelineExecutor executor;
+    private final int chunkSize;
+
+    /**
+     * @param loader        the loader of the target store
+     * @param mapper        the instrument mapper
+     * @param hashStore     the content hashes of previous loads
+     * @param checkpointDir the directory of the checkpoint logs
+     * @param executor      the executor that runs the stages
+     * @param chunkSize     the number of rows per chunk; must not change between
+     *                      a crashed run and its resume
+     * @throws IllegalArgumentException if an argument is null or
+     *                                  {@code chunkSize} is not positive
+     */
+    public IncrementalPipelineRunner(BulkLoader loader, InstrumentMapper mapper, ContentHashStore hashStore,
+            Path checkpointDir, StagedPipelineExecutor executor, int chunkSize) {
+        if (loader == null || mapper == null || hashStore == null || checkpointDir == null || executor == null) {
+            throw new IllegalArgumentException("Runner dependencies cannot be null.");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.loader = loader;
+        this.mapper = mapper;
+        this.hashStore = hashStore;
+        this.checkpointDir = checkpointDir;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Loads the new and changed rows of a file.
+     *
+     * @param file     the EoD CSV file
+     * @param fileDate the business date of the file
+     * @return the result of the run; an empty result if the file was already
+     *         loaded
+     * @throws PipelineException the first failure of the run
+     */
+    public PipelineResult run(Path file, LocalDate fileDate) throws PipelineException {
+        IdempotencyKey key;
+        try {
+            key = IdempotencyKey.forFile(fileDate, file);
+        } catch (IOException e) {
+            throw new PipelineException(ErrorCategory.SYSTEM, "Cannot read " + file + ".", e);
+        }
+        if (loader.isLoaded(key)) {
+            return new PipelineResult(0, 0, 0);
+        }
+
+        hashStore.discardPending();
+        ChunkCheckpointStore checkpoints;
+        try {
+            checkpoints = ChunkCheckpointStore.open(checkpointDir.resolve(key + ".ckpt"), chunkSize,
+                    hashStore::stage);
+        } catch (IOException e) {
+            throw new PipelineException(ErrorCategory.SYSTEM, "Cannot open checkpoints of " + key + ".", e);
+        }
+
+        BitSet completed = checkpoints.getCompletedChunks();
+        LoadSession session = null;
+        try (EodCsvChunkReader reader = new EodCsvChunkReader(file, chunkSize);
+                DuplicateKeyDetector detector = new DuplicateKeyDetector()) {
+            session = completed.isEmpty() ? loader.begin(key) : loader.resume(key);
+
+            ValidationStage validation = new ValidationStage(detector);
+            reader.skipChunks(completed, validation::registerCheckpointedChunk);
+
+            List<PipelineStage> stages = List.of(
+                    validation,
+                    new TransformStage(),
+                    new DeltaFilterStage(hashStore),
+                    new InstrumentMappingStage(mapper),
+                    new LoadStage(session),
+                    new CheckpointStage(checkpoints));
+
+            return executor.run(reader, stages, new IncrementalTransaction(session, checkpoints));
+        } catch (PipelineException e) {
+            discardFailedRun(e, session, checkpoints);
+            throw e;
+        } catch (IOException e) {
+            PipelineException failure = new PipelineException(ErrorCategory.SYSTEM, "Cannot read " + file + ".", e);
+            discardFailedRun(failure, session, checkpoints);
+            throw failure;
+        } finally {
+            try {
+                checkpoints.close();
+            } catch (IOException e) {
+                // Nothing left to flush; every checkpoint is forced when written.
+            }
+        }
+    }
+
+    /**
+     * Cleans up after a failed run without throwing, so the caller always
+     * rethrows {@code failure}. Unexpected errors of the cleanup are attached to
+     * it as suppressed exceptions.
+     */
+    private void discardFailedRun(PipelineException failure, LoadSession session, ChunkCheckpointStore checkpoints) {
+        hashStore.discardPending();
+        if (failure.getCategory() == ErrorCategory.SYSTEM) {
+            return;
+        }
+
+        if (session != null) {
+            try {
+                session.abort();
+            } catch (RuntimeException e) {
+                // abort() must not throw; if it does, the checkpoint log must still go.
+                failure.addSuppressed(e);
+            }
+        }
+        try {
+            checkpoints.delete();
+        } catch (IOException e) {
+            // A stale log only makes the next run skip chunks of a file that failed
+            // validation; that file must be fixed, which changes its key anyway.
+        }
+    }
+
+    /**
+     * Commits the load, then forgets the checkpoints and persists the new hashes.
+     * Aborting is left to {@link #discardFailedRun}, which knows the error
+     * category.
+     */
+    private final class IncrementalTransaction implements PipelineTransaction {
+        private final LoadSession session;
+        private final ChunkCheckpointStore checkpoints;
+
+        IncrementalTransaction(LoadSession session, ChunkCheckpointStore checkpoints) {
+            this.session = session;
+            this.checkpoints = checkpoints;
+        }
+
+        @Override
+        public void commit() throws PipelineException {
+            session.commit();
+            try {
+                checkpoints.delete();
+                hashStore.commit();
+            } catch (IOException e) {
+                throw new PipelineException(ErrorCategory.SYSTEM,
+                        "Load committed but the delta state could not be saved.", e);
+            }
+        }
+
+        @Override
+        public void abort() {
+        }
+    }
+}
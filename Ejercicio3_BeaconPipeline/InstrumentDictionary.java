@@ -0,0 +1,69 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns a dense {@code int} id to every distinct external instrument id seen
+ * in an EoD file.
+ * <p>
+ * Ids start at 0 and increase in order of first appearance, so they fit in the
+ * upper 32 bits of a packed {@code (instrument, date)} key. Only one entry is
+ * created per distinct instrument; looking up an instrument that is already
+ * known does not allocate.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class InstrumentDictionary {
+
+    private final Map<String, Integer> idsByInstrument = new HashMap<>();
+    private final List<String> instrumentsById = new ArrayList<>();
+
+    /**
+     * Returns the id of the given instrument, assigning a new one if the
+     * instrument has not been seen before.
+     *
+     * @param instrumentId the external instrument id (must not be null or empty)
+     * @return the dictionary id of the instrument
+     * @throws IllegalArgumentException if {@code instrumentId} is null or empty
+     */
+    public int idOf(String instrumentId) {
+        if (instrumentId == null || instrumentId.isEmpty()) {
+            throw new IllegalArgumentException("Instrument id cannot be empty.");
+        }
+
+        Integer id = idsByInstrument.get(instrumentId);
+        if (id != null) {
+            return id;
+        }
+
+        int newId = instrumentsById.size();
+        idsByInstrument.put(instrumentId, newId);
+        instrumentsById.add(instrumentId);
+        return newId;
+    }
+
+    /**
+     * Returns the external instrument id registered under the given dictionary id.
+     *
+     * @param id the dictionary id
+     * @return the external instrument id
+     * @throws IllegalArgumentException if the id has not been assigned
+     */
+    public String instrumentOf(int id) {
+        if (id < 0 || id >= instrumentsById.size()) {
+            throw new IllegalArgumentException("Unknown dictionary id: " + id);
+        }
+        return instrumentsById.get(id);
+    }
+
+    /**
+     * @return the number of distinct instruments registered
+     */
+    public int size() {
+        return instrumentsById.size();
+    }
+}
@@ -0,0 +1,167 @@
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Maps external instrument ids to internal ones (lookup step of the pipeline)
+ * without querying the remote store once per row.
+ * <p>
+ * The whole equivalence table is bulk-loaded from an
+ * {@link InstrumentMappingSource} into an immutable
+ * {@link InstrumentMappingIndex}. Ids missing from the index are resolved with
+ * {@link InstrumentMappingSource#lookup(String)} once and the answer, found or
+ * not, is kept in a small bounded cache so repeated unknown ids do not hit the
+ * source again.
+ * </p>
+ *
+ * <p>
+ * {@link #refresh()} builds a new index and a new, empty cache and publishes
+ * both with a single volatile write (copy-on-write). Lookups never take a lock:
+ * they keep using the previous snapshot until the new one is published.
+ * </p>
+ *
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * InstrumentMapper mapper = new InstrumentMapper(new FileInstrumentMappingSource(Path.of("instruments.csv")));
+ * mapper.refresh();
+ * String internalId = mapper.map("AAPL.OQ");
+ * </pre>
+ * </p>
+ */
+public class InstrumentMapper {
+
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final InstrumentMappingSource source;
+    private final int cacheSize;
+    private final Object refreshLock = new Object();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Creates a mapper with the default cache size. The mapper is empty until
+     * {@link #refresh()} is called.
+     *
+     * @param source the source of the equivalence table
+     */
+    public InstrumentMapper(InstrumentMappingSource source) {
+        this(source, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a mapper. The mapper is empty until {@link #refresh()} is called.
+     *
+     * @param source    the source of the equivalence table (must not be null)
+     * @param cacheSize the number of slots of the cache for ids missing from the
+     *                  index; rounded up to a power of two
+     * @throws IllegalArgumentException if {@code source} is null or
+     *                                  {@code cacheSize} is not positive
+     */
+    public InstrumentMapper(InstrumentMappingSource source, int cacheSize) {
+        if (source == null) {
+            throw new IllegalArgumentException("Mapping source cannot be null.");
+        }
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        this.source = source;
+        this.cacheSize = cacheSize;
+        this.snapshot = new Snapshot(InstrumentMappingIndex.build(Map.of()), cacheSize);
+    }
+
+    /**
+     * Reloads the equivalence table and atomically replaces the current index.
+     * Concurrent refreshes are serialized; lookups are not blocked.
+     *
+     * @throws IOException if the source cannot be loaded; the current index is
+     *                     kept in that case
+     */
+    public void refresh() throws IOException {
+        synchronized (refreshLock) {
+            InstrumentMappingIndex index = InstrumentMappingIndex.build(source.loadAll());
+            snapshot = new Snapshot(index, cacheSize);
+        }
+    }
+
+    /**
+     * Maps an external instrument id to its internal id.
+     *
+     * @param externalId the external instrument id
+     * @return the internal instrument id, or {@code null} if it is unknown
+     * @throws IOException if the fallback lookup on the source fails
+     */
+    public String map(String externalId) throws IOException {
+        if (externalId == null) {
+            return null;
+        }
+
+        Snapshot current = snapshot;
+        String internalId = current.index.get(externalId);
+        if (internalId != null) {
+            return internalId;
+        }
+
+        CacheEntry cached = current.cachedEntry(externalId);
+        if (cached != null) {
+            return cached.internalId;
+        }
+
+        internalId = source.lookup(externalId);
+        current.cache(new CacheEntry(externalId, internalId));
+        return internalId;
+    }
+
+    /**
+     * @return the number of mappings in the current index
+     */
+    public int size() {
+        return snapshot.index.size();
+    }
+
+    /**
+     * An index together with the cache of ids that were missing from it. Both are
+     * replaced together so cached answers never outlive the index they
+     * complement.
+     */
+    private static final class Snapshot {
+        private final InstrumentMappingIndex index;
+        private final AtomicReferenceArray<CacheEntry> cache;
+        private final int mask;
+
+        Snapshot(InstrumentMappingIndex index, int cacheSize) {
+            int capacity = Integer.highestOneBit(Math.max(1, cacheSize - 1)) << 1;
+            this.index = index;
+            this.cache = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        CacheEntry cachedEntry(String externalId) {
+            CacheEntry entry = cache.get(slotOf(externalId));
+            return entry != null && entry.externalId.equals(externalId) ? entry : null;
+        }
+
+        /**
+         * Stores an entry in its direct-mapped slot, evicting whatever id was there.
+         */
+        void cache(CacheEntry entry) {
+            cache.set(slotOf(entry.externalId), entry);
+        }
+
+        private int slotOf(String externalId) {
+            int h = externalId.hashCode();
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+
+    private static final class CacheEntry {
+        private final String externalId;
+        private final String internalId;
+
+        CacheEntry(String externalId, String internalId) {
+            this.externalId = externalId;
+            this.internalId = internalId;
+        }
+    }
+}
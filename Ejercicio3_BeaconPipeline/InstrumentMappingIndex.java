@@ -0,0 +1,108 @@
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable, read-optimized index from external to internal instrument ids.
+ * <p>
+ * The mappings are stored in three parallel arrays sorted by the hash code of
+ * the external id. A lookup is a binary search over the {@code int[]} of hashes
+ * followed by an {@code equals} check on the few entries that share the hash,
+ * so it never allocates and never takes a lock.
+ * </p>
+ *
+ * <p>
+ * Instances are safe to share between threads once built.
+ * </p>
+ */
+public final class InstrumentMappingIndex {
+
+    private final int[] hashes;
+    private final String[] externalIds;
+    private final String[] internalIds;
+
+    private InstrumentMappingIndex(int[] hashes, String[] externalIds, String[] internalIds) {
+        this.hashes = hashes;
+        this.externalIds = externalIds;
+        this.internalIds = internalIds;
+    }
+
+    /**
+     * Builds an index from a bulk-loaded equivalence table.
+     *
+     * @param mappings a map from external instrument id to internal instrument id
+     * @return the index
+     * @throws IllegalArgumentException if {@code mappings} is null or contains a
+     *                                  null id
+     */
+    public static InstrumentMappingIndex build(Map<String, String> mappings) {
+        if (mappings == null) {
+            throw new IllegalArgumentException("Mappings cannot be null.");
+        }
+
+        int size = mappings.size();
+        String[] externals = new String[size];
+        String[] internals = new String[size];
+        long[] order = new long[size];
+
+        int i = 0;
+        for (Map.Entry<String, String> entry : mappings.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                throw new IllegalArgumentException("Mappings cannot contain null ids.");
+            }
+            externals[i] = entry.getKey();
+            internals[i] = entry.getValue();
+            // Hash in the upper half, original position in the lower half, so a
+            // plain long sort yields the permutation ordered by hash.
+            order[i] = ((long) entry.getKey().hashCode() << 32) | i;
+            i++;
+        }
+        Arrays.sort(order);
+
+        int[] sortedHashes = new int[size];
+        String[] sortedExternals = new String[size];
+        String[] sortedInternals = new String[size];
+        for (int j = 0; j < size; j++) {
+            int position = (int) order[j];
+            sortedHashes[j] = (int) (order[j] >> 32);
+            sortedExternals[j] = externals[position];
+            sortedInternals[j] = internals[position];
+        }
+
+        return new InstrumentMappingIndex(sortedHashes, sortedExternals, sortedInternals);
+    }
+
+    /**
+     * Returns the internal id mapped to the given external id.
+     *
+     * @param externalId the external instrument id
+     * @return the internal instrument id, or {@code null} if it is not mapped
+     */
+    public String get(String externalId) {
+        if (externalId == null) {
+            return null;
+        }
+
+        int hash = externalId.hashCode();
+        int index = Arrays.binarySearch(hashes, hash);
+        if (index < 0) {
+            return null;
+        }
+
+        while (index > 0 && hashes[index - 1] == hash) {
+            index--;
+        }
+        for (; index < hashes.length && hashes[index] == hash; index++) {
+            if (externalIds[index].equals(externalId)) {
+                return internalIds[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of mappings in the index
+     */
+    public int size() {
+        return hashes.length;
+    }
+}
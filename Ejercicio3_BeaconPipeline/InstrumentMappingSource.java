@@ -0,0 +1,38 @@
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Source of the equivalence table between external and internal instrument ids.
+ * <p>
+ * {@link #loadAll()} is used to bulk-load the whole table into an
+ * {@link InstrumentMappingIndex}. {@link #lookup(String)} is an optional
+ * fallback for ids that are missing from the loaded table, for example when the
+ * source is a remote store that may have received new instruments since the
+ * last refresh.
+ * </p>
+ */
+public interface InstrumentMappingSource {
+
+    /**
+     * Loads every mapping of the equivalence table.
+     *
+     * @return a map from external instrument id to internal instrument id
+     * @throws IOException if the table cannot be read
+     */
+    Map<String, String> loadAll() throws IOException;
+
+    /**
+     * Looks up a single external id that is not in the loaded table.
+     * <p>
+     * The default implementation does not support single lookups and always
+     * returns {@code null}.
+     * </p>
+     *
+     * @param externalId the external instrument id
+     * @return the internal instrument id, or {@code null} if it is unknown
+     * @throws IOException if the source cannot be queried
+     */
+    default String lookup(String externalId) throws IOException {
+        return null;
+    }
+}
@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pipeline stage that replaces external instrument ids with internal ones using
+ * an {@link InstrumentMapper}.
+ * <p>
+ * A chunk with any unmapped instrument fails with
+ * {@link ErrorCategory#MAPPING}, which aborts the run before anything is
+ * committed.
+ * </p>
+ */
+public class InstrumentMappingStage implements PipelineStage {
+
+    private static final int MAX_REPORTED_IDS = 10;
+
+    private final InstrumentMapper mapper;
+
+    /**
+     * @param mapper the mapper used to resolve instrument ids (must not be null)
+     * @throws IllegalArgumentException if {@code mapper} is null
+     */
+    public InstrumentMappingStage(InstrumentMapper mapper) {
+        if (mapper == null) {
+            throw new IllegalArgumentException("Instrument mapper cannot be null.");
+        }
+        this.mapper = mapper;
+    }
+
+    @Override
+    public String getName() {
+        return "map";
+    }
+
+    /**
+     * Sets the internal instrument id of every record of the chunk.
+     *
+     * @param chunk the chunk of transformed records
+     * @return the chunk with mapped records
+     * @throws PipelineException with category {@link ErrorCategory#MAPPING} if an
+     *                           instrument is unknown, or
+     *                           {@link ErrorCategory#SYSTEM} if the mapping source
+     *                           fails
+     */
+    @Override
+    public PriceChunk process(PriceChunk chunk) throws PipelineException {
+        List<PriceRecord> records = chunk.getRecords();
+        List<PriceRecord> mapped = new ArrayList<>(records.size());
+        Set<String> unknownIds = new LinkedHashSet<>();
+
+        try {
+            for (PriceRecord record : records) {
+                String internalId = mapper.map(record.getInstrumentId());
+                if (internalId == null) {
+                    unknownIds.add(record.getInstrumentId());
+                } else {
+                    mapped.add(record.withInternalInstrumentId(internalId));
+                }
+            }
+        } catch (IOException e) {
+            throw new PipelineException(ErrorCategory.SYSTEM, "Instrument mapping source failed.", e);
+        }
+
+        if (!unknownIds.isEmpty()) {
+            List<String> reported = new ArrayList<>(unknownIds).subList(0, Math.min(unknownIds.size(), MAX_REPORTED_IDS));
+            throw new PipelineException(ErrorCategory.MAPPING, unknownIds.size()
+                    + " unmapped instrument id(s) in chunk " + chunk.getSequence() + ": " + reported);
+        }
+
+        return chunk.withRecords(mapped);
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * One in-progress load started by {@link BulkLoader#begin(IdempotencyKey)}.
+ * <p>
+ * {@link #load(PriceChunk)} may be called from several threads at once.
+ * {@link #commit()} promotes every staged chunk to the live set in a single
+ * atomic step and {@link #abort()} discards them.
+ * </p>
+ */
+public interface LoadSession extends PipelineTransaction {
+
+    /**
+     * Writes the records of a chunk to the staging area. When this method returns
+     * the chunk is durably staged.
+     *
+     * @param chunk the chunk of mapped records
+     * @throws PipelineException with category {@link ErrorCategory#SYSTEM} if the
+     *                           chunk cannot be staged
+     */
+    void load(PriceChunk chunk) throws PipelineException;
+
+    /**
+     * @return {@code true} if the key of this session was already committed and
+     *         every write is ignored
+     */
+    boolean isAlreadyLoaded();
+
+    /**
+     * @return the number of rows staged so far
+     */
+    long getLoadedRows();
+
+    /**
+     * @return the number of rows staged per second since the session began
+     */
+    double getRowsPerSecond();
+}
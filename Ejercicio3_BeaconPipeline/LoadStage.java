@@ -0,0 +1,31 @@
+/**
+ * Pipeline stage that hands every chunk to a {@link LoadSession}. It is the last
+ * stage of the pipeline; the same session is passed to
+ * {@link StagedPipelineExecutor#run} as the transaction to commit.
+ */
+public class LoadStage implements PipelineStage {
+
+    private final LoadSession session;
+
+    /**
+     * @param session the session that stages the chunks (must not be null)
+     * @throws IllegalArgumentException if {@code session} is null
+     */
+    public LoadStage(LoadSession session) {
+        if (session == null) {
+            throw new IllegalArgumentException("Load session cannot be null.");
+        }
+        this.session = session;
+    }
+
+    @Override
+    public String getName() {
+        return "load";
+    }
+
+    @Override
+    public PriceChunk process(PriceChunk chunk) throws PipelineException {
+        session.load(chunk);
+        return chunk;
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Open-addressing hash map from primitive {@code long} keys to primitive
+ * {@code long} values.
+ * <p>
+ * Keys and values are stored in parallel {@code long[]} arrays using linear
+ * probing, so reads and writes never allocate. The key {@code 0} is used as the
+ * empty-slot marker and is tracked separately.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class LongLongHashMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    private boolean containsZero;
+    private long zeroValue;
+
+    /**
+     * Creates a map sized to hold at least {@code expectedSize} entries without
+     * resizing.
+     *
+     * @param expectedSize the expected number of entries
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public LongLongHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative: " + expectedSize);
+        }
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(long key, long value) {
+        if (key == 0L) {
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+
+        int index = indexOf(key);
+        while (keys[index] != 0L) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++size >= resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param key          the key to look up
+     * @param defaultValue the value returned if the key is absent
+     * @return the value of the key, or {@code defaultValue}
+     */
+    public long get(long key, long defaultValue) {
+        if (key == 0L) {
+            return containsZero ? zeroValue : defaultValue;
+        }
+
+        int index = indexOf(key);
+        while (keys[index] != 0L) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return {@code true} if the key has a value
+     */
+    public boolean containsKey(long key) {
+        if (key == 0L) {
+            return containsZero;
+        }
+
+        int index = indexOf(key);
+        while (keys[index] != 0L) {
+            if (keys[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Copies every entry of another map into this one.
+     *
+     * @param other the map whose entries are copied
+     */
+    public void putAll(LongLongHashMap other) {
+        other.forEach(this::put);
+    }
+
+    /**
+     * Calls the visitor once per entry, in no particular order.
+     *
+     * @param visitor the visitor
+     */
+    public void forEach(EntryVisitor visitor) {
+        if (containsZero) {
+            visitor.visit(0L, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0L) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        allocate(16);
+        size = 0;
+        containsZero = false;
+        zeroValue = 0L;
+    }
+
+    /**
+     * Receives the entries of the map in {@link #forEach(EntryVisitor)}.
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(long key, long value);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0L) {
+                int index = indexOf(key);
+                while (keys[index] != 0L) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
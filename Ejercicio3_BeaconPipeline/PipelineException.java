@@ -0,0 +1,27 @@
+/**
+ * Checked exception raised when a step of the Beacon pipeline fails.
+ * <p>
+ * Every exception carries an {@link ErrorCategory} so callers can log and alert
+ * on validation errors separately from system errors.
+ * </p>
+ */
+public class PipelineException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ErrorCategory category;
+
+    public PipelineException(ErrorCategory category, String message) {
+        super(message);
+        this.category = category;
+    }
+
+    public PipelineException(ErrorCategory category, String message, Throwable cause) {
+        super(message, cause);
+        this.category = category;
+    }
+
+    public ErrorCategory getCategory() {
+        return category;
+    }
+}
@@ -0,0 +1,217 @@
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * In-process metrics of one pipeline run.
+ * <p>
+ * Holds a {@link StageMetrics} per stage, plus a {@code read} entry for the
+ * reader that splits the file into chunks, and the number of errors by
+ * {@link ErrorCategory}. When passed to
+ * {@link StagedPipelineExecutor#run(EodCsvChunkReader, List, PipelineTransaction, PipelineMetrics)}
+ * the executor times every chunk in every stage, so a slow daily load shows
+ * whether parsing, validation, mapping or loading is responsible.
+ * </p>
+ *
+ * <p>
+ * {@link #toJson()} renders the report of the run. It can be called at any
+ * time; {@link #startSnapshots(Duration, Consumer)} calls it periodically while
+ * the run is in progress.
+ * </p>
+ *
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * PipelineMetrics metrics = new PipelineMetrics();
+ * try (AutoCloseable snapshots = metrics.startSnapshots(Duration.ofSeconds(10), System.out::println)) {
+ *     executor.run(reader, stages, transaction, metrics);
+ * } finally {
+ *     Files.writeString(Path.of("logs/metrics_2025-08-02.json"), metrics.toJson());
+ * }
+ * </pre>
+ * </p>
+ */
+public class PipelineMetrics {
+
+    /**
+     * Name of the entry that measures the reader.
+     */
+    public static final String READ_STAGE = "read";
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] PERCENTILE_KEYS = { "p50", "p90", "p99", "p999" };
+
+    private final Map<String, StageMetrics> stages = new LinkedHashMap<>();
+    private final Map<ErrorCategory, LongAdder> errors = new EnumMap<>(ErrorCategory.class);
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    public PipelineMetrics() {
+        for (ErrorCategory category : ErrorCategory.values()) {
+            errors.put(category, new LongAdder());
+        }
+        stages.put(READ_STAGE, new StageMetrics(READ_STAGE));
+    }
+
+    /**
+     * Returns the metrics of a stage, creating them on first use. Stages appear
+     * in the report in the order they were first requested.
+     *
+     * @param name the name of the stage
+     * @return the metrics of the stage
+     */
+    public synchronized StageMetrics stage(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Stage name cannot be null.");
+        }
+        return stages.computeIfAbsent(name, StageMetrics::new);
+    }
+
+    /**
+     * Counts an error of a run.
+     *
+     * @param category the category of the error
+     */
+    public void recordError(ErrorCategory category) {
+        errors.get(category).increment();
+    }
+
+    public long getErrors(ErrorCategory category) {
+        return errors.get(category).sum();
+    }
+
+    /**
+     * Marks the end of the run; rates in later reports are computed up to this
+     * point instead of up to the current time.
+     */
+    public void markFinished() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * @return the time since the metrics were created, or until
+     *         {@link #markFinished()} if the run is over
+     */
+    public long getElapsedNanos() {
+        long end = endNanos;
+        return (end == 0 ? System.nanoTime() : end) - startNanos;
+    }
+
+    /**
+     * Calls {@link #toJson()} periodically on a daemon thread and hands every
+     * report to {@code sink}.
+     *
+     * @param period the time between snapshots
+     * @param sink   receives every snapshot
+     * @return closing it stops the snapshots
+     */
+    public AutoCloseable startSnapshots(Duration period, Consumer<String> sink) {
+        if (period == null || period.isNegative() || period.isZero() || sink == null) {
+            throw new IllegalArgumentException("Snapshot period must be positive and sink cannot be null.");
+        }
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pipeline-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodNanos = period.toNanos();
+        scheduler.scheduleAtFixedRate(() -> sink.accept(toJson()), periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        return scheduler::shutdownNow;
+    }
+
+    /**
+     * Renders the report of the run as a single JSON object.
+     *
+     * @return the report
+     */
+    public String toJson() {
+        long elapsedNanos = getElapsedNanos();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        List<StageMetrics> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(stages.values());
+        }
+
+        StringBuilder sb = new StringBuilder(256 + snapshot.size() * 384);
+        sb.append("{\"startedAt\":\"").append(startedAt).append('"');
+        sb.append(",\"finished\":").append(endNanos != 0);
+        sb.append(",\"elapsedMs\":").append(elapsedNanos / 1_000_000);
+
+        sb.append(",\"stages\":[");
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendStage(sb, snapshot.get(i), seconds);
+        }
+        sb.append(']');
+
+        sb.append(",\"errors\":{");
+        boolean first = true;
+        for (Map.Entry<ErrorCategory, LongAdder> entry : errors.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append('"').append(entry.getKey()).append("\":").append(entry.getValue().sum());
+        }
+        sb.append("}}");
+        return sb.toString();
+    }
+
+    private static void appendStage(StringBuilder sb, StageMetrics stage, double seconds) {
+        LatencyHistogram latency = stage.getLatency();
+        long rows = stage.getRows();
+        long bytes = stage.getBytes();
+
+        sb.append("{\"name\":");
+        appendJsonString(sb, stage.getName());
+        sb.append(",\"chunks\":").append(latency.getCount());
+        sb.append(",\"rows\":").append(rows);
+        sb.append(",\"bytes\":").append(bytes);
+        sb.append(",\"rowsPerSecond\":").append(rate(rows, seconds));
+        sb.append(",\"bytesPerSecond\":").append(rate(bytes, seconds));
+        sb.append(",\"errors\":").append(stage.getErrors());
+        sb.append(",\"queueDepth\":").append(stage.getQueueDepth());
+        sb.append(",\"maxQueueDepth\":").append(stage.getMaxQueueDepth());
+        sb.append(",\"busyMs\":").append(latency.getTotalNanos() / 1_000_000);
+        sb.append(",\"latencyMicros\":{\"mean\":").append(Math.round(latency.getMeanNanos() / 1_000.0));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            sb.append(",\"").append(PERCENTILE_KEYS[i]).append("\":")
+                    .append(latency.getValueAtPercentile(PERCENTILES[i]) / 1_000);
+        }
+        sb.append(",\"max\":").append(latency.getMaxNanos() / 1_000);
+        sb.append("}}");
+    }
+
+    private static long rate(long count, double seconds) {
+        return seconds <= 0 ? 0 : Math.round(count / seconds);
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Summary of a successful pipeline run.
+ */
+public final class PipelineResult {
+    private final long chunks;
+    private final long rows;
+    private final long elapsedNanos;
+
+    public PipelineResult(long chunks, long rows, long elapsedNanos) {
+        this.chunks = chunks;
+        this.rows = rows;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getChunks() {
+        return chunks;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the number of rows that reached the end of the pipeline per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PipelineResult[chunks=%d, rows=%d, elapsedMs=%d, rowsPerSecond=%.1f]",
+                chunks, rows, elapsedNanos / 1_000_000, getRowsPerSecond());
+    }
+}
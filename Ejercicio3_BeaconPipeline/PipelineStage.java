@@ -0,0 +1,34 @@
+/**
+ * One step of the Beacon pipeline applied to every {@link PriceChunk}.
+ * <p>
+ * {@link StagedPipelineExecutor} may call {@link #process(PriceChunk)} from
+ * several worker threads at once, so implementations must be thread-safe.
+ * {@link #finish()} is called once, after the last chunk has left the stage.
+ * </p>
+ */
+public interface PipelineStage {
+
+    /**
+     * @return the name of the stage, used in logs and error messages
+     */
+    String getName();
+
+    /**
+     * Processes a chunk.
+     *
+     * @param chunk the chunk produced by the previous stage
+     * @return the chunk to hand to the next stage
+     * @throws PipelineException if the chunk cannot be processed; the whole run
+     *                           is aborted
+     */
+    PriceChunk process(PriceChunk chunk) throws PipelineException;
+
+    /**
+     * Completes checks that need to see every chunk, such as duplicate detection
+     * across chunks. The default implementation does nothing.
+     *
+     * @throws PipelineException if the check fails; the whole run is aborted
+     */
+    default void finish() throws PipelineException {
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * The unit of work a pipeline run loads into. Stages write into it while the
+ * run is in progress, and {@link StagedPipelineExecutor} either commits it once
+ * every chunk has passed every stage or aborts it, so a file is never partially
+ * loaded.
+ */
+public interface PipelineTransaction {
+
+    /**
+     * Makes everything written during the run visible at once.
+     *
+     * @throws PipelineException if the commit fails
+     */
+    void commit() throws PipelineException;
+
+    /**
+     * Discards everything written during the run. Must not throw.
+     */
+    void abort();
+}
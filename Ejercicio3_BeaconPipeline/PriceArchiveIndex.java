@@ -0,0 +1,42 @@
+import java.time.LocalDate;
+
+/**
+ * Min/max index stored in the uncompressed header of a price archive.
+ * <p>
+ * It is read by {@link PriceArchiveReader#readIndex(java.nio.file.Path)}
+ * without decompressing the columns, so whole files outside a date range can be
+ * skipped during a backfill or an audit.
+ * </p>
+ */
+public final class PriceArchiveIndex {
+    private final int rowCount;
+    private final long minEpochDay;
+    private final long maxEpochDay;
+
+    public PriceArchiveIndex(int rowCount, long minEpochDay, long maxEpochDay) {
+        this.rowCount = rowCount;
+        this.minEpochDay = minEpochDay;
+        this.maxEpochDay = maxEpochDay;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public LocalDate getMinDate() {
+        return LocalDate.ofEpochDay(minEpochDay);
+    }
+
+    public LocalDate getMaxDate() {
+        return LocalDate.ofEpochDay(maxEpochDay);
+    }
+
+    /**
+     * @param from the first date of the range (inclusive)
+     * @param to   the last date of the range (inclusive)
+     * @return {@code true} if the archive may hold rows dated within the range
+     */
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return rowCount > 0 && minEpochDay <= to.toEpochDay() && maxEpochDay >= from.toEpochDay();
+    }
+}
@@ -0,0 +1,323 @@
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads archives written by {@link PriceArchiveWriter}.
+ * <p>
+ * {@link #readIndex(Path)} reads only the uncompressed header.
+ * {@link #replay(Path, LocalDate, LocalDate, RecordVisitor)} walks a directory
+ * of archives, skips every file whose index falls outside the requested date
+ * range and decodes the rest column by column, which is much cheaper than
+ * re-parsing and re-validating the original CSV text.
+ * {@link #replayRows(Path, LocalDate, LocalDate, ColumnVisitor)} does the same
+ * but hands the visitor the columns of every row, without allocating a
+ * {@link PriceRecord} per row.
+ * </p>
+ */
+public final class PriceArchiveReader {
+
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+    private PriceArchiveReader() {
+    }
+
+    /**
+     * Receives the records decoded from an archive.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(PriceRecord record) throws IOException;
+    }
+
+    /**
+     * Receives the columns of every row decoded from an archive.
+     */
+    @FunctionalInterface
+    public interface ColumnVisitor {
+        void visit(long rowNumber, String instrumentId, long epochDay, double price, String currency, String market)
+                throws IOException;
+    }
+
+    /**
+     * Reads the min/max index of an archive without decoding its columns.
+     *
+     * @param file the archive file
+     * @return the index of the archive
+     * @throws IOException if the file cannot be read or is not an archive
+     */
+    public static PriceArchiveIndex readIndex(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return readHeader(in, file);
+        }
+    }
+
+    /**
+     * Decodes every record of an archive.
+     *
+     * @param file the archive file
+     * @return the records, in the order they were appended
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static List<PriceRecord> readAll(Path file) throws IOException {
+        List<PriceRecord> records = new ArrayList<>();
+        forEach(file, records::add);
+        return records;
+    }
+
+    /**
+     * Decodes every record of an archive and hands it to a visitor.
+     *
+     * @param file    the archive file
+     * @param visitor receives every record, in the order they were appended
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static void forEach(Path file, RecordVisitor visitor) throws IOException {
+        forEachRow(file, (rowNumber, instrumentId, epochDay, price, currency, market) -> visitor.visit(
+                new PriceRecord(rowNumber, instrumentId, epochDay, price, currency, market)));
+    }
+
+    /**
+     * Decodes every row of an archive and hands its columns to a visitor,
+     * without allocating a {@link PriceRecord} per row.
+     *
+     * @param file    the archive file
+     * @param visitor receives every row, in the order they were appended
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static void forEachRow(Path file, ColumnVisitor visitor) throws IOException {
+        forEachRow(file, Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+    }
+
+    /**
+     * Replays the records of every archive in a directory that are dated within
+     * a range. Files are visited in name order; files whose index does not
+     * overlap the range are skipped without being decompressed.
+     *
+     * @param directory the directory of archives ({@code *.eodc} files)
+     * @param from      the first date of the range (inclusive)
+     * @param to        the last date of the range (inclusive)
+     * @param visitor   receives every record within the range
+     * @return the number of archive files that were decoded
+     * @throws IOException if a file cannot be read or is corrupt
+     */
+    public static int replay(Path directory, LocalDate from, LocalDate to, RecordVisitor visitor)
+            throws IOException {
+        return replayRows(directory, from, to, (rowNumber, instrumentId, epochDay, price, currency, market) ->
+                visitor.visit(new PriceRecord(rowNumber, instrumentId, epochDay, price, currency, market)));
+    }
+
+    /**
+     * Same as {@link #replay(Path, LocalDate, LocalDate, RecordVisitor)}, but
+     * hands the columns of every row to the visitor instead of a
+     * {@link PriceRecord}.
+     *
+     * @param directory the directory of archives ({@code *.eodc} files)
+     * @param from      the first date of the range (inclusive)
+     * @param to        the last date of the range (inclusive)
+     * @param visitor   receives every row within the range
+     * @return the number of archive files that were decoded
+     * @throws IOException if a file cannot be read or is corrupt
+     */
+    public static int replayRows(Path directory, LocalDate from, LocalDate to, ColumnVisitor visitor)
+            throws IOException {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+        }
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().endsWith(".eodc")).sorted().toList();
+        }
+
+        int decoded = 0;
+        for (Path file : files) {
+            if (!readIndex(file).overlaps(from, to)) {
+                continue;
+            }
+            decoded++;
+            forEachRow(file, from.toEpochDay(), to.toEpochDay(), visitor);
+        }
+        return decoded;
+    }
+
+    private static void forEachRow(Path file, long fromDay, long toDay, ColumnVisitor visitor) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        PriceArchiveIndex index = readHeader(new DataInputStream(new ByteArrayInputStream(data)), file);
+
+        int rows = index.getRowCount();
+        BodyReader in = inflateBody(data, file);
+        String[] instruments = in.readDictionary();
+        String[] currencies = in.readDictionary();
+        String[] markets = in.readDictionary();
+
+        int[] instrumentCodes = in.readCodes(rows, instruments.length);
+        int[] currencyCodes = in.readCodes(rows, currencies.length);
+        int[] marketCodes = in.readCodes(rows, markets.length);
+        long[] epochDays = in.readDeltas(rows);
+        long[] rowNumbers = in.readDeltas(rows);
+        double[] prices = in.readPrices(rows);
+
+        for (int i = 0; i < rows; i++) {
+            if (epochDays[i] >= fromDay && epochDays[i] <= toDay) {
+                visitor.visit(rowNumbers[i], instruments[instrumentCodes[i]], epochDays[i], prices[i],
+                        currencies[currencyCodes[i]], markets[marketCodes[i]]);
+            }
+        }
+    }
+
+    private static PriceArchiveIndex readHeader(DataInputStream in, Path file) throws IOException {
+        try {
+            if (in.readInt() != PriceArchiveWriter.MAGIC || in.readInt() != PriceArchiveWriter.VERSION) {
+                throw new IOException("Not a supported price archive: " + file);
+            }
+            int rows = in.readInt();
+            int minDay = in.readInt();
+            int maxDay = in.readInt();
+            return new PriceArchiveIndex(rows, minDay, maxDay);
+        } catch (EOFException e) {
+            throw new IOException("Truncated price archive header: " + file, e);
+        }
+    }
+
+    private static BodyReader inflateBody(byte[] data, Path file) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_BYTES, data.length - HEADER_BYTES);
+            byte[] body = new byte[Math.max(1 << 12, (data.length - HEADER_BYTES) * 4)];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == body.length) {
+                    body = Arrays.copyOf(body, body.length * 2);
+                }
+                int inflated = inflater.inflate(body, length, body.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated price archive: " + file);
+                }
+                length += inflated;
+            }
+            return new BodyReader(body, length, file);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt price archive body: " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Decodes the columns of an inflated archive body. Reading varints from a
+     * byte array avoids a stream call per byte.
+     */
+    private static final class BodyReader {
+        private final byte[] body;
+        private final int length;
+        private final Path file;
+        private int position;
+
+        BodyReader(byte[] body, int length, Path file) {
+            this.body = body;
+            this.length = length;
+            this.file = file;
+        }
+
+        String[] readDictionary() throws IOException {
+            String[] values = new String[Math.toIntExact(readVarLong())];
+            for (int i = 0; i < values.length; i++) {
+                if (length - position < 2) {
+                    throw truncated();
+                }
+                int size = 2 + ((body[position] & 0xFF) << 8 | (body[position + 1] & 0xFF));
+                if (size > length - position) {
+                    throw truncated();
+                }
+                values[i] = DataInputStream.readUTF(new DataInputStream(new ByteArrayInputStream(body, position, size)));
+                position += size;
+            }
+            return values;
+        }
+
+        int[] readCodes(int rows, int dictionarySize) throws IOException {
+            int[] codes = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                long code = readVarLong();
+                if (code >= dictionarySize) {
+                    throw new IOException("Corrupt dictionary code in " + file);
+                }
+                codes[i] = (int) code;
+            }
+            return codes;
+        }
+
+        long[] readDeltas(int rows) throws IOException {
+            long[] values = new long[rows];
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += unZigZag(readVarLong());
+                values[i] = previous;
+            }
+            return values;
+        }
+
+        double[] readPrices(int rows) throws IOException {
+            int scale = readByte();
+            double[] prices = new double[rows];
+            if (scale == PriceArchiveWriter.RAW_PRICE_SCALE) {
+                for (int i = 0; i < rows; i++) {
+                    long bits = 0;
+                    for (int b = 0; b < Long.BYTES; b++) {
+                        bits = bits << 8 | (readByte() & 0xFF);
+                    }
+                    prices[i] = Double.longBitsToDouble(bits);
+                }
+                return prices;
+            }
+            if (scale < 0 || scale > PriceArchiveWriter.MAX_PRICE_SCALE) {
+                throw new IOException("Corrupt price scale in " + file);
+            }
+
+            double factor = Math.pow(10, scale);
+            long[] scaled = readDeltas(rows);
+            for (int i = 0; i < rows; i++) {
+                prices[i] = scaled[i] / factor;
+            }
+            return prices;
+        }
+
+        private byte readByte() throws IOException {
+            if (position >= length) {
+                throw truncated();
+            }
+            return body[position++];
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in price archive: " + file);
+        }
+
+        private IOException truncated() {
+            return new IOException("Truncated price archive: " + file);
+        }
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,282 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes validated price records to a compact binary columnar archive, replacing
+ * the raw CSV kept after processing.
+ * <p>
+ * File layout:
+ * <ul>
+ * <li>Uncompressed header: magic, version, row count and min/max epoch day (the
+ * {@link PriceArchiveIndex}).</li>
+ * <li>DEFLATE-compressed body with one section per column:
+ * <ul>
+ * <li>instrument, currency and market dictionaries followed by the
+ * dictionary code of every row as a varint;</li>
+ * <li>dates as the zigzag varint delta from the previous row;</li>
+ * <li>source row numbers as the zigzag varint delta from the previous row;</li>
+ * <li>prices as fixed-point integers with the smallest decimal scale (up to
+ * {@value #MAX_PRICE_SCALE} digits) that represents every price exactly,
+ * zigzag delta encoded; if no such scale exists, the raw IEEE 754 bits.</li>
+ * </ul>
+ * </li>
+ * </ul>
+ * Rows are buffered in primitive arrays and written when the writer is closed.
+ * The file is written to a temporary file and renamed, so readers never see a
+ * partial archive.
+ * </p>
+ *
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * try (PriceArchiveWriter writer = new PriceArchiveWriter(Path.of("archive/EoDPrices_2025-08-02.eodc"))) {
+ *     for (PriceRecord record : records) {
+ *         writer.append(record);
+ *     }
+ * }
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class PriceArchiveWriter implements Closeable {
+
+    static final int MAGIC = 0x454f4443; // "EODC"
+    static final int VERSION = 1;
+    static final int MAX_PRICE_SCALE = 8;
+    static final int RAW_PRICE_SCALE = -1;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L };
+
+    private final Path target;
+    private final CodeDictionary instruments = new CodeDictionary();
+    private final CodeDictionary currencies = new CodeDictionary();
+    private final CodeDictionary markets = new CodeDictionary();
+
+    private int[] instrumentCodes = new int[1024];
+    private int[] currencyCodes = new int[1024];
+    private int[] marketCodes = new int[1024];
+    private long[] epochDays = new long[1024];
+    private long[] rowNumbers = new long[1024];
+    private double[] prices = new double[1024];
+    private int size;
+    private boolean closed;
+
+    /**
+     * @param target the archive file to create
+     * @throws IllegalArgumentException if {@code target} is null
+     */
+    public PriceArchiveWriter(Path target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Archive file cannot be null.");
+        }
+        this.target = target;
+    }
+
+    /**
+     * Adds a record to the archive.
+     *
+     * @param record the validated record
+     * @throws IllegalStateException    if the writer is closed
+     * @throws IllegalArgumentException if the date does not fit in the archive
+     *                                  index
+     */
+    public void append(PriceRecord record) {
+        if (closed) {
+            throw new IllegalStateException("Archive writer is closed.");
+        }
+        if (record.getEpochDay() < Integer.MIN_VALUE || record.getEpochDay() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Epoch day out of range: " + record.getEpochDay());
+        }
+
+        if (size == epochDays.length) {
+            grow();
+        }
+        instrumentCodes[size] = instruments.codeOf(record.getInstrumentId());
+        currencyCodes[size] = currencies.codeOf(record.getCurrency());
+        marketCodes[size] = markets.codeOf(record.getMarket());
+        epochDays[size] = record.getEpochDay();
+        rowNumbers[size] = record.getRowNumber();
+        prices[size] = record.getPrice();
+        size++;
+    }
+
+    /**
+     * Writes the archive file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        long minDay = 0;
+        long maxDay = 0;
+        if (size > 0) {
+            minDay = Long.MAX_VALUE;
+            maxDay = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                minDay = Math.min(minDay, epochDays[i]);
+                maxDay = Math.max(maxDay, epochDays[i]);
+            }
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream header = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeInt(size);
+                header.writeInt((int) minDay);
+                header.writeInt((int) maxDay);
+                header.flush();
+
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try {
+                    DeflaterOutputStream body = new DeflaterOutputStream(header, deflater, 1 << 16);
+                    writeBody(new DataOutputStream(new BufferedOutputStream(body, 1 << 16)));
+                    body.finish();
+                } finally {
+                    deflater.end();
+                }
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void writeBody(DataOutputStream out) throws IOException {
+        instruments.write(out);
+        currencies.write(out);
+        markets.write(out);
+
+        for (int i = 0; i < size; i++) {
+            writeVarLong(out, instrumentCodes[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            writeVarLong(out, currencyCodes[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            writeVarLong(out, marketCodes[i]);
+        }
+
+        writeDeltas(out, epochDays);
+        writeDeltas(out, rowNumbers);
+
+        int scale = priceScale();
+        out.writeByte(scale);
+        if (scale == RAW_PRICE_SCALE) {
+            for (int i = 0; i < size; i++) {
+                out.writeLong(Double.doubleToLongBits(prices[i]));
+            }
+        } else {
+            long[] scaled = new long[size];
+            for (int i = 0; i < size; i++) {
+                scaled[i] = Math.round(prices[i] * POWERS_OF_TEN[scale]);
+            }
+            writeDeltas(out, scaled);
+        }
+        out.flush();
+    }
+
+    private void writeDeltas(DataOutputStream out, long[] values) throws IOException {
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            writeVarLong(out, zigZag(values[i] - previous));
+            previous = values[i];
+        }
+    }
+
+    /**
+     * Returns the smallest decimal scale at which every price round-trips
+     * exactly, or {@link #RAW_PRICE_SCALE} if none does.
+     */
+    private int priceScale() {
+        for (int scale = 0; scale <= MAX_PRICE_SCALE; scale++) {
+            long factor = POWERS_OF_TEN[scale];
+            double limit = (double) Long.MAX_VALUE / factor;
+            boolean exact = true;
+            for (int i = 0; i < size && exact; i++) {
+                double price = prices[i];
+                exact = Math.abs(price) < limit && Math.round(price * factor) / (double) factor == price;
+            }
+            if (exact) {
+                return scale;
+            }
+        }
+        return RAW_PRICE_SCALE;
+    }
+
+    private void grow() {
+        int capacity = epochDays.length << 1;
+        instrumentCodes = Arrays.copyOf(instrumentCodes, capacity);
+        currencyCodes = Arrays.copyOf(currencyCodes, capacity);
+        marketCodes = Arrays.copyOf(marketCodes, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        rowNumbers = Arrays.copyOf(rowNumbers, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Dictionary of the distinct values of a string column, coded in order of
+     * first appearance.
+     */
+    private static final class CodeDictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int codeOf(String value) {
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            int newCode = values.size();
+            codes.put(value, newCode);
+            values.add(value);
+            return newCode;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            writeVarLong(out, values.size());
+            for (String value : values) {
+                out.writeUTF(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A contiguous block of rows of an EoD price file that flows through the
+ * pipeline stages as a unit.
+ * <p>
+ * A chunk is created by {@link EodCsvChunkReader} with the raw lines of the
+ * file. The validation stage parses those lines into {@link PriceRecord}s and
+ * later stages replace the records with their transformed versions using
+ * {@link #withRecords(List)}.
+ * </p>
+ */
+public final class PriceChunk {
+    private final long sequence;
+    private final long firstRowNumber;
+    private final long byteCount;
+    private final List<String> lines;
+    private final List<PriceRecord> records;
+
+    public PriceChunk(long sequence, long firstRowNumber, long byteCount, List<String> lines) {
+        this(sequence, firstRowNumber, byteCount, lines, Collections.emptyList());
+    }
+
+    private PriceChunk(long sequence, long firstRowNumber, long byteCount, List<String> lines,
+            List<PriceRecord> records) {
+        this.sequence = sequence;
+        this.firstRowNumber = firstRowNumber;
+        this.byteCount = byteCount;
+        this.lines = lines;
+        this.records = records;
+    }
+
+    /**
+     * Returns a copy of this chunk holding the given records. The raw lines are
+     * dropped once records exist, since no later stage needs them.
+     *
+     * @param newRecords the records of the chunk
+     * @return the new chunk
+     */
+    public PriceChunk withRecords(List<PriceRecord> newRecords) {
+        return new PriceChunk(sequence, firstRowNumber, byteCount, Collections.emptyList(),
+                Collections.unmodifiableList(newRecords));
+    }
+
+    /**
+     * @return the position of the chunk in the file, starting at 0
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the file line number of the first row of the chunk
+     */
+    public long getFirstRowNumber() {
+        return firstRowNumber;
+    }
+
+    /**
+     * @return the number of bytes the raw lines of the chunk took in the file
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    public List<PriceRecord> getRecords() {
+        return records;
+    }
+
+    /**
+     * @return the number of rows in the chunk, raw or parsed
+     */
+    public int size() {
+        return records.isEmpty() ? lines.size() : records.size();
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Represents one validated row of an EoD price file.
+ * <p>
+ * The date is kept as an epoch day ({@code LocalDate.toEpochDay()}) so it can be
+ * packed into duplicate keys and archived without conversions. The internal
+ * instrument id is {@code null} until the mapping stage resolves it.
+ * </p>
+ */
+public final class PriceRecord {
+    private final long rowNumber;
+    private final String instrumentId;
+    private final long epochDay;
+    private final double price;
+    private final String currency;
+    private final String market;
+    private final String internalInstrumentId;
+
+    public PriceRecord(long rowNumber, String instrumentId, long epochDay, double price, String currency,
+            String market) {
+        this(rowNumber, instrumentId, epochDay, price, currency, market, null);
+    }
+
+    public PriceRecord(long rowNumber, String instrumentId, long epochDay, double price, String currency,
+            String market, String internalInstrumentId) {
+        this.rowNumber = rowNumber;
+        this.instrumentId = instrumentId;
+        this.epochDay = epochDay;
+        this.price = price;
+        this.currency = currency;
+        this.market = market;
+        this.internalInstrumentId = internalInstrumentId;
+    }
+
+    /**
+     * Returns a copy of this record with the given internal instrument id.
+     *
+     * @param internalId the internal instrument id
+     * @return the mapped record
+     */
+    public PriceRecord withInternalInstrumentId(String internalId) {
+        return new PriceRecord(rowNumber, instrumentId, epochDay, price, currency, market, internalId);
+    }
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    public String getInstrumentId() {
+        return instrumentId;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getMarket() {
+        return market;
+    }
+
+    public String getInternalInstrumentId() {
+        return internalInstrumentId;
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of one pipeline stage: the latency of every chunk it processed, the
+ * rows and bytes it consumed and the depth of the queue in front of it.
+ * <p>
+ * Every method is thread-safe and recording never allocates, so the workers of
+ * a stage can update the same instance without contention on the hot path.
+ * </p>
+ */
+public class StageMetrics {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private volatile BlockingQueue<?> queue;
+
+    StageMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a chunk processed by the stage.
+     *
+     * @param nanos the time spent processing the chunk
+     * @param rows  the rows of the chunk
+     * @param bytes the bytes of the chunk in the source file
+     */
+    public void recordChunk(long nanos, long rows, long bytes) {
+        latency.record(nanos);
+        this.rows.add(rows);
+        this.bytes.add(bytes);
+    }
+
+    /**
+     * Records the failure that stopped the run in this stage.
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Samples the depth of the queue in front of the stage and keeps the peak.
+     */
+    public void sampleQueueDepth() {
+        BlockingQueue<?> current = queue;
+        if (current != null) {
+            maxQueueDepth.accumulateAndGet(current.size(), Math::max);
+        }
+    }
+
+    void bindQueue(BlockingQueue<?> queue) {
+        this.queue = queue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * @return the number of chunks waiting in front of the stage, or 0 if the
+     *         stage is not running
+     */
+    public int getQueueDepth() {
+        BlockingQueue<?> current = queue;
+        return current == null ? 0 : current.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+}
@@ -0,0 +1,325 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the Beacon pipeline stages concurrently over the chunks of a file.
+ * <p>
+ * The caller thread reads chunks from an {@link EodCsvChunkReader} and every
+ * {@link PipelineStage} (typically validate, transform, map and load) runs on
+ * its own virtual-thread workers. Stages are connected by bounded queues: when a
+ * slow stage such as the loader falls behind, the queue in front of it fills up
+ * and every upstream stage, including the reader, blocks instead of buffering
+ * the whole file in memory.
+ * </p>
+ *
+ * <p>
+ * The run keeps the "no partial load" guarantee of the design: the
+ * {@link PipelineTransaction} is committed only after every chunk has passed
+ * every stage and every {@link PipelineStage#finish()} check. The first failure
+ * in any chunk stops all workers and aborts the transaction.
+ * </p>
+ *
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * StagedPipelineExecutor executor = new StagedPipelineExecutor(4, 2);
+ * try (EodCsvChunkReader reader = new EodCsvChunkReader(file, 10_000)) {
+ *     PipelineResult result = executor.run(reader,
+ *             List.of(new ValidationStage(detector), new TransformStage(), new InstrumentMappingStage(mapper), loadStage),
+ *             transaction);
+ * }
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * Pass a {@link PipelineMetrics} to
+ * {@link #run(EodCsvChunkReader, List, PipelineTransaction, PipelineMetrics)}
+ * to time every chunk read and every chunk processed by each stage, and to
+ * sample the depth of the queue in front of each stage.
+ * </p>
+ *
+ * <p>
+ * Requires Java 21 (virtual threads).
+ * </p>
+ */
+public class StagedPipelineExecutor {
+
+    /**
+     * Marker put on a queue after the last chunk.
+     */
+    private static final PriceChunk END_OF_STREAM = new PriceChunk(-1, -1, 0, Collections.emptyList());
+
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private final int queueCapacity;
+    private final int workersPerStage;
+
+    /**
+     * @param queueCapacity   the maximum number of chunks waiting in front of each
+     *                        stage
+     * @param workersPerStage the number of workers that process chunks of each
+     *                        stage in parallel
+     * @throws IllegalArgumentException if either value is not positive
+     */
+    public StagedPipelineExecutor(int queueCapacity, int workersPerStage) {
+        if (queueCapacity <= 0 || workersPerStage <= 0) {
+            throw new IllegalArgumentException("Queue capacity and workers per stage must be positive.");
+        }
+        this.queueCapacity = queueCapacity;
+        this.workersPerStage = workersPerStage;
+    }
+
+    /**
+     * Runs every chunk of the reader through the stages and commits the
+     * transaction if nothing failed.
+     *
+     * @param reader      the source of chunks
+     * @param stages      the stages in execution order (must not be empty)
+     * @param transaction the transaction committed at the end of a successful run
+     * @return the number of chunks and rows that reached the end of the pipeline
+     * @throws PipelineException the first failure of the run; the transaction is
+     *                           aborted before it is thrown
+     */
+    public PipelineResult run(EodCsvChunkReader reader, List<PipelineStage> stages,
+            PipelineTransaction transaction) throws PipelineException {
+        return run(reader, stages, transaction, null);
+    }
+
+    /**
+     * Runs every chunk of the reader through the stages, recording per-stage
+     * metrics, and commits the transaction if nothing failed.
+     *
+     * @param reader      the source of chunks
+     * @param stages      the stages in execution order (must not be empty)
+     * @param transaction the transaction committed at the end of a successful run
+     * @param metrics     receives the metrics of the run; may be null
+     * @return the number of chunks and rows that reached the end of the pipeline
+     * @throws PipelineException the first failure of the run; the transaction is
+     *                           aborted before it is thrown
+     */
+    public PipelineResult run(EodCsvChunkReader reader, List<PipelineStage> stages,
+            PipelineTransaction transaction, PipelineMetrics metrics) throws PipelineException {
+        if (reader == null || transaction == null) {
+            throw new IllegalArgumentException("Reader and transaction cannot be null.");
+        }
+        if (stages == null || stages.isEmpty()) {
+            throw new IllegalArgumentException("At least one stage is required.");
+        }
+
+        List<BlockingQueue<PriceChunk>> queues = new ArrayList<>(stages.size());
+        List<StageMetrics> stageMetrics = new ArrayList<>(stages.size());
+        for (int i = 0; i < stages.size(); i++) {
+            BlockingQueue<PriceChunk> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            StageMetrics sm = metrics == null ? null : metrics.stage(stages.get(i).getName());
+            if (sm != null) {
+                sm.bindQueue(queue);
+            }
+            stageMetrics.add(sm);
+        }
+        StageMetrics readMetrics = metrics == null ? null : metrics.stage(PipelineMetrics.READ_STAGE);
+
+        AtomicReference<PipelineException> failure = new AtomicReference<>();
+        AtomicLong completedChunks = new AtomicLong();
+        AtomicLong completedRows = new AtomicLong();
+        long start = System.nanoTime();
+
+        try (ExecutorService workers = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("pipeline-worker-", 0).factory())) {
+
+            for (int i = 0; i < stages.size(); i++) {
+                PipelineStage stage = stages.get(i);
+                BlockingQueue<PriceChunk> input = queues.get(i);
+                BlockingQueue<PriceChunk> output = i + 1 < stages.size() ? queues.get(i + 1) : null;
+                StageMetrics sm = stageMetrics.get(i);
+                AtomicInteger activeWorkers = new AtomicInteger(workersPerStage);
+
+                for (int w = 0; w < workersPerStage; w++) {
+                    workers.submit(() -> {
+                        try {
+                            runWorker(stage, input, output, activeWorkers, completedChunks, completedRows, sm);
+                        } catch (PipelineException e) {
+                            if (fail(failure, e, workers, metrics)) {
+                                recordStageError(sm);
+                            }
+                        } catch (InterruptedException e) {
+                            // Interrupted by shutdownNow() after another failure.
+                        } catch (RuntimeException | Error e) {
+                            // Any other throwable must also fail the run, or the workers of the next
+                            // stage would wait forever for END_OF_STREAM.
+                            if (fail(failure, new PipelineException(ErrorCategory.SYSTEM,
+                                    "Unexpected error in stage " + stage.getName() + ".", e), workers, metrics)) {
+                                recordStageError(sm);
+                            }
+                        }
+                    });
+                }
+            }
+
+            produce(reader, queues.get(0), failure, workers, metrics, readMetrics);
+        } finally {
+            for (StageMetrics sm : stageMetrics) {
+                if (sm != null) {
+                    sm.bindQueue(null);
+                }
+            }
+        }
+
+        PipelineException error = failure.get();
+        if (error != null) {
+            transaction.abort();
+            markFinished(metrics);
+            throw error;
+        }
+
+        try {
+            transaction.commit();
+        } catch (PipelineException e) {
+            if (metrics != null) {
+                metrics.recordError(e.getCategory());
+            }
+            transaction.abort();
+            markFinished(metrics);
+            throw e;
+        }
+        markFinished(metrics);
+
+        return new PipelineResult(completedChunks.get(), completedRows.get(), System.nanoTime() - start);
+    }
+
+    private static void runWorker(
+            PipelineStage stage,
+            BlockingQueue<PriceChunk> input, BlockingQueue<PriceChunk> output,
+            AtomicInteger activeWorkers,
+            AtomicLong completedChunks, AtomicLong completedRows,
+            StageMetrics metrics)
+            throws PipelineException, InterruptedException {
+
+        while (true) {
+            if (metrics != null) {
+                metrics.sampleQueueDepth();
+            }
+            PriceChunk chunk = input.take();
+            if (chunk == END_OF_STREAM) {
+                // Put the marker back so the other workers of this stage see it too.
+                input.put(END_OF_STREAM);
+                break;
+            }
+
+            long start = System.nanoTime();
+            PriceChunk result = stage.process(chunk);
+            if (metrics != null) {
+                metrics.recordChunk(System.nanoTime() - start, chunk.size(), chunk.getByteCount());
+            }
+            if (output != null) {
+                output.put(result);
+            } else {
+                completedChunks.incrementAndGet();
+                completedRows.addAndGet(result.size());
+            }
+        }
+
+        if (activeWorkers.decrementAndGet() == 0) {
+            stage.finish();
+            if (output != null) {
+                output.put(END_OF_STREAM);
+            }
+        }
+    }
+
+    private static void produce(
+            EodCsvChunkReader reader, BlockingQueue<PriceChunk> firstQueue,
+            AtomicReference<PipelineException> failure, ExecutorService workers,
+            PipelineMetrics metrics, StageMetrics readMetrics) {
+        try {
+            while (failure.get() == null) {
+                long start = System.nanoTime();
+                PriceChunk chunk = reader.nextChunk();
+                if (chunk == null) {
+                    break;
+                }
+                if (readMetrics != null) {
+                    readMetrics.recordChunk(System.nanoTime() - start, chunk.size(), chunk.getByteCount());
+                }
+                offerUntilAccepted(firstQueue, chunk, failure);
+            }
+            offerUntilAccepted(firstQueue, END_OF_STREAM, failure);
+        } catch (IOException e) {
+            if (fail(failure, new PipelineException(ErrorCategory.SYSTEM, "Failed to read input file.", e),
+                    workers, metrics)) {
+                recordStageError(readMetrics);
+            }
+        } catch (PipelineException e) {
+            if (fail(failure, e, workers, metrics)) {
+                recordStageError(readMetrics);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(failure, new PipelineException(ErrorCategory.SYSTEM, "Pipeline run interrupted.", e), workers,
+                    metrics);
+        } catch (RuntimeException | Error e) {
+            // Without a failure the workers would wait forever for END_OF_STREAM.
+            if (fail(failure, new PipelineException(ErrorCategory.SYSTEM, "Unexpected error reading input file.", e),
+                    workers, metrics)) {
+                recordStageError(readMetrics);
+            }
+        }
+    }
+
+    /**
+     * Blocks until the queue accepts the chunk, giving up if the run has failed
+     * so the reader never waits on a queue whose consumers have stopped.
+     */
+    private static void offerUntilAccepted(
+            BlockingQueue<PriceChunk> queue, PriceChunk chunk,
+            AtomicReference<PipelineException> failure) throws InterruptedException {
+        while (failure.get() == null) {
+            if (queue.offer(chunk, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    private static void markFinished(PipelineMetrics metrics) {
+        if (metrics != null) {
+            metrics.markFinished();
+        }
+    }
+
+    private static void recordStageError(StageMetrics metrics) {
+        if (metrics != null) {
+            metrics.recordError();
+        }
+    }
+
+    /**
+     * Keeps the first failure of the run, counts it in the metrics and stops
+     * every worker. Later failures are usually caused by the shutdown itself, so
+     * they are dropped.
+     *
+     * @return {@code true} if {@code error} is the first failure of the run
+     */
+    private static boolean fail(
+            AtomicReference<PipelineException> failure, PipelineException error,
+            ExecutorService workers, PipelineMetrics metrics) {
+        if (failure.compareAndSet(null, error)) {
+            if (metrics != null) {
+                metrics.recordError(error.getCategory());
+            }
+            workers.shutdownNow();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pipeline stage that standardizes validated records to the Beacon format
+ * (step 3 of the pipeline design).
+ * <p>
+ * Currency and market codes are upper-cased so that {@code "usd"} and
+ * {@code "USD"} end up as the same value in MongoDB. Dates are already kept as
+ * UTC epoch days by {@link ValidationStage}.
+ * </p>
+ */
+public class TransformStage implements PipelineStage {
+
+    @Override
+    public String getName() {
+        return "transform";
+    }
+
+    @Override
+    public PriceChunk process(PriceChunk chunk) {
+        List<PriceRecord> records = chunk.getRecords();
+        List<PriceRecord> transformed = new ArrayList<>(records.size());
+
+        for (PriceRecord r : records) {
+            String currency = r.getCurrency().toUpperCase(Locale.ROOT);
+            String market = r.getMarket().toUpperCase(Locale.ROOT);
+            if (currency.equals(r.getCurrency()) && market.equals(r.getMarket())) {
+                transformed.add(r);
+            } else {
+                transformed.add(new PriceRecord(r.getRowNumber(), r.getInstrumentId(), r.getEpochDay(),
+                        r.getPrice(), currency, market, r.getInternalInstrumentId()));
+            }
+        }
+
+        return chunk.withRecords(transformed);
+    }
+}
@@ -0,0 +1,226 @@
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pipeline stage that parses and validates the raw lines of a chunk (step 2 of
+ * the pipeline design).
+ * <p>
+ * Every line must have the five columns of
+ * {@link EodCsvChunkReader#EXPECTED_HEADER}, a non-empty instrument id, currency
+ * and market, an ISO date (YYYY-MM-DD) and a finite, non-negative price. Blank
+ * lines are skipped. The keys of all rows are fed to a
+ * {@link DuplicateKeyDetector}, and {@link #finish()} rejects the file if any
+ * {@code (instrument_id, date)} pair is repeated.
+ * </p>
+ */
+public class ValidationStage implements PipelineStage {
+
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final DuplicateKeyDetector duplicateDetector;
+
+    /**
+     * @param duplicateDetector the detector that receives the key of every row
+     *                          (must not be null); it is finished by
+     *                          {@link #finish()}
+     * @throws IllegalArgumentException if {@code duplicateDetector} is null
+     */
+    public ValidationStage(DuplicateKeyDetector duplicateDetector) {
+        if (duplicateDetector == null) {
+            throw new IllegalArgumentException("Duplicate detector cannot be null.");
+        }
+        this.duplicateDetector = duplicateDetector;
+    }
+
+    @Override
+    public String getName() {
+        return "validate";
+    }
+
+    /**
+     * Parses every line of the chunk into a {@link PriceRecord}.
+     *
+     * @param chunk the chunk of raw lines
+     * @return the chunk with its parsed records
+     * @throws PipelineException with category {@link ErrorCategory#VALIDATION}
+     *                           listing the first invalid rows, or
+     *                           {@link ErrorCategory#SYSTEM} if the duplicate
+     *                           detector cannot spill to disk
+     */
+    @Override
+    public PriceChunk process(PriceChunk chunk) throws PipelineException {
+        List<String> lines = chunk.getLines();
+        List<PriceRecord> records = new ArrayList<>(lines.size());
+        List<String> errors = new ArrayList<>();
+        int errorCount = 0;
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+
+            long rowNumber = chunk.getFirstRowNumber() + i;
+            try {
+                records.add(parse(rowNumber, line));
+            } catch (IllegalArgumentException e) {
+                if (++errorCount <= MAX_REPORTED_ERRORS) {
+                    errors.add("row " + rowNumber + ": " + e.getMessage());
+                }
+            }
+        }
+
+        if (errorCount > 0) {
+            throw new PipelineException(ErrorCategory.VALIDATION,
+                    errorCount + " invalid row(s) in chunk " + chunk.getSequence() + ": " + String.join("; ", errors));
+        }
+
+        registerKeys(records);
+        return chunk.withRecords(records);
+    }
+
+    /**
+     * Registers the keys of a chunk that is skipped because a crashed run already
+     * validated and staged it, so duplicates between skipped and new chunks are
+     * still detected. Only the instrument id and date columns are read.
+     *
+     * @param chunk the skipped chunk of raw lines
+     * @throws PipelineException with category {@link ErrorCategory#VALIDATION} if
+     *                           a line has no instrument id and date columns,
+     *                           an empty instrument id or an invalid date, or
+     *                           {@link ErrorCategory#SYSTEM} if the duplicate
+     *                           detector cannot spill to disk
+     */
+    public void registerCheckpointedChunk(PriceChunk chunk) throws PipelineException {
+        List<String> lines = chunk.getLines();
+        synchronized (duplicateDetector) {
+            try {
+                for (int i = 0; i < lines.size(); i++) {
+                    String line = lines.get(i);
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    long rowNumber = chunk.getFirstRowNumber() + i;
+                    int first = line.indexOf(',');
+                    int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+                    if (second < 0) {
+                        throw new PipelineException(ErrorCategory.VALIDATION,
+                                "Checkpointed row " + rowNumber + ": expected 5 columns.");
+                    }
+
+                    String instrumentId = line.substring(0, first).trim();
+                    if (instrumentId.isEmpty()) {
+                        throw new PipelineException(ErrorCategory.VALIDATION,
+                                "Checkpointed row " + rowNumber + ": instrument_id cannot be empty.");
+                    }
+                    String date = line.substring(first + 1, second).trim();
+                    long epochDay;
+                    try {
+                        epochDay = LocalDate.parse(date).toEpochDay();
+                    } catch (DateTimeParseException e) {
+                        throw new PipelineException(ErrorCategory.VALIDATION,
+                                "Checkpointed row " + rowNumber + ": invalid date '" + date + "'.", e);
+                    }
+                    duplicateDetector.add(rowNumber, instrumentId, epochDay);
+                }
+            } catch (IOException e) {
+                throw new PipelineException(ErrorCategory.SYSTEM, "Duplicate detection failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Rejects the file if any {@code (instrument_id, date)} pair appeared more
+     * than once.
+     *
+     * @throws PipelineException with category {@link ErrorCategory#VALIDATION} if
+     *                           duplicates were found, or
+     *                           {@link ErrorCategory#SYSTEM} if the spill runs
+     *                           cannot be read
+     */
+    @Override
+    public void finish() throws PipelineException {
+        long[] duplicateRows;
+        synchronized (duplicateDetector) {
+            try {
+                duplicateRows = duplicateDetector.finish();
+            } catch (IOException e) {
+                throw new PipelineException(ErrorCategory.SYSTEM, "Duplicate detection failed.", e);
+            }
+        }
+
+        if (duplicateRows.length > 0) {
+            long[] reported = Arrays.copyOf(duplicateRows, Math.min(duplicateRows.length, MAX_REPORTED_ERRORS));
+            throw new PipelineException(ErrorCategory.VALIDATION, duplicateRows.length
+                    + " duplicate (instrument_id, date) row(s), first rows: " + Arrays.toString(reported));
+        }
+    }
+
+    private void registerKeys(List<PriceRecord> records) throws PipelineException {
+        synchronized (duplicateDetector) {
+            try {
+                for (PriceRecord record : records) {
+                    duplicateDetector.add(record.getRowNumber(), record.getInstrumentId(), record.getEpochDay());
+                }
+            } catch (IOException e) {
+                throw new PipelineException(ErrorCategory.SYSTEM, "Duplicate detection failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Parses one CSV line.
+     *
+     * @throws IllegalArgumentException describing the first invalid field
+     */
+    private static PriceRecord parse(long rowNumber, String line) {
+        String[] fields = new String[5];
+        int start = 0;
+        for (int f = 0; f < 5; f++) {
+            int comma = line.indexOf(',', start);
+            if (f < 4 && comma < 0) {
+                throw new IllegalArgumentException("expected 5 columns.");
+            }
+            if (f == 4 && comma >= 0) {
+                throw new IllegalArgumentException("expected 5 columns.");
+            }
+            int end = f < 4 ? comma : line.length();
+            fields[f] = line.substring(start, end).trim();
+            start = end + 1;
+        }
+
+        String instrumentId = requireNonEmpty(fields[0], "instrument_id");
+        String currency = requireNonEmpty(fields[3], "currency");
+        String market = requireNonEmpty(fields[4], "market");
+
+        long epochDay;
+        try {
+            epochDay = LocalDate.parse(fields[1]).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid date '" + fields[1] + "'.");
+        }
+
+        double price;
+        try {
+            price = Double.parseDouble(fields[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid price '" + fields[2] + "'.");
+        }
+        if (!Double.isFinite(price) || price < 0) {
+            throw new IllegalArgumentException("price must be a non-negative number.");
+        }
+
+        return new PriceRecord(rowNumber, instrumentId, epochDay, price, currency, market);
+    }
+
+    private static String requireNonEmpty(String value, String column) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(column + " cannot be empty.");
+        }
+        return value;
+    }
+}
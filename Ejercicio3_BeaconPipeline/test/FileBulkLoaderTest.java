@@ -0,0 +1,126 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Failure-path checks of {@link FileBulkLoader}: a load that is interrupted or
+ * whose batches fail must stop its batch writers and return every batch permit
+ * before it throws, so the staging directory can be aborted cleanly and later
+ * loads on the same loader do not block.
+ * <p>
+ * Run from {@code Ejercicio3_BeaconPipeline} with Java 21:
+ *
+ * <pre>
+ * javac -d out *.java test/*.java
+ * java -cp out FileBulkLoaderTest
+ * </pre>
+ * </p>
+ */
+public class FileBulkLoaderTest {
+
+    private static final int BATCHES_IN_FLIGHT = 4;
+
+    public static void main(String[] args) throws Exception {
+        Path baseDir = Files.createTempDirectory("bulk-loader-test");
+        try (FileBulkLoader loader = new FileBulkLoader(baseDir, 1, BATCHES_IN_FLIGHT)) {
+            interruptedLoadsReturnPermits(loader, baseDir);
+            failedLoadReturnsPermits(loader, baseDir);
+            loadAfterFailuresCompletes(loader);
+        }
+        System.out.println("FileBulkLoaderTest: OK");
+    }
+
+    private static void interruptedLoadsReturnPermits(FileBulkLoader loader, Path baseDir) throws Exception {
+        int interrupted = 0;
+        for (int i = 0; i < 50; i++) {
+            IdempotencyKey key = new IdempotencyKey(LocalDate.of(2025, 8, 1), "interrupted" + i);
+            LoadSession session = loader.begin(key);
+            PriceChunk chunk = chunk(i, 500);
+            List<PipelineException> errors = Collections.synchronizedList(new ArrayList<>());
+
+            Thread worker = new Thread(() -> {
+                try {
+                    session.load(chunk);
+                } catch (PipelineException e) {
+                    errors.add(e);
+                }
+            });
+            worker.start();
+            TimeUnit.MILLISECONDS.sleep(2);
+            worker.interrupt();
+            worker.join(10_000);
+            check(!worker.isAlive(), "load() did not return after being interrupted");
+
+            if (!errors.isEmpty()) {
+                interrupted++;
+            }
+            checkAllPermits(loader, "after interrupted load " + i);
+            session.abort();
+            check(!Files.exists(baseDir.resolve("staging").resolve(key.toString())),
+                    "abort() left the staging directory of interrupted load " + i);
+        }
+        check(interrupted > 0, "no load was interrupted; the check did not exercise the failure path");
+    }
+
+    private static void failedLoadReturnsPermits(FileBulkLoader loader, Path baseDir) throws Exception {
+        IdempotencyKey key = new IdempotencyKey(LocalDate.of(2025, 8, 1), "failed");
+        LoadSession session = loader.begin(key);
+        // Removing the staging directory makes every batch write fail.
+        Files.delete(baseDir.resolve("staging").resolve(key.toString()));
+
+        try {
+            session.load(chunk(0, 200));
+            throw new AssertionError("load() succeeded without a staging directory");
+        } catch (PipelineException e) {
+            check(e.getCategory() == ErrorCategory.SYSTEM, "expected a SYSTEM error, got " + e.getCategory());
+        }
+        checkAllPermits(loader, "after failed load");
+        session.abort();
+    }
+
+    private static void loadAfterFailuresCompletes(FileBulkLoader loader) throws Exception {
+        IdempotencyKey key = new IdempotencyKey(LocalDate.of(2025, 8, 1), "after-failures");
+        LoadSession session = loader.begin(key);
+        Thread worker = new Thread(() -> {
+            try {
+                session.load(chunk(0, 100));
+                session.commit();
+            } catch (PipelineException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        worker.start();
+        worker.join(10_000);
+        check(!worker.isAlive(), "load() after failed loads blocked");
+        check(loader.isLoaded(key), "load after failed loads was not committed");
+        check(session.getLoadedRows() == 100, "expected 100 loaded rows, got " + session.getLoadedRows());
+    }
+
+    private static PriceChunk chunk(long sequence, int rows) {
+        List<PriceRecord> records = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            records.add(new PriceRecord(i + 2, "EXT" + i, LocalDate.of(2025, 8, 1).toEpochDay(), i * 0.25, "USD",
+                    "NYSE", "INT" + i));
+        }
+        return new PriceChunk(sequence, 2, 0, Collections.emptyList()).withRecords(records);
+    }
+
+    /**
+     * load() waits for its batch writers to stop, so every permit must be back
+     * as soon as it returns or throws.
+     */
+    private static void checkAllPermits(FileBulkLoader loader, String when) {
+        check(loader.availableBatchPermits() == BATCHES_IN_FLIGHT, "leaked batch permits " + when + ": "
+                + loader.availableBatchPermits() + " of " + BATCHES_IN_FLIGHT + " available");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Failure-path checks of {@link IncrementalPipelineRunner}: a run that fails
+ * with a {@link ErrorCategory#SYSTEM} error keeps its staged batches and
+ * checkpoints, and the next run of the same file on the same loader resumes
+ * from the checkpointed chunks and loads every row exactly once. A rejected file
+ * loses its checkpoints and reports the original failure even if aborting the
+ * load throws, and malformed checkpointed rows are reported as
+ * {@link ErrorCategory#VALIDATION} errors that name the bad column.
+ * <p>
+ * Run from {@code Ejercicio3_BeaconPipeline} with Java 21:
+ *
+ * <pre>
+ * javac -d out *.java test/*.java
+ * java -cp out IncrementalPipelineRunnerTest
+ * </pre>
+ * </p>
+ */
+public class IncrementalPipelineRunnerTest {
+
+    private static final int ROWS = 5_000;
+    private static final int CHUNK_SIZE = 500;
+    private static final String LATE_INSTRUMENT = "EXT-LATE";
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("incremental-runner-test");
+        systemFailureThenResume(dir.resolve("resume"));
+        validationFailureSurvivesFailingAbort(dir.resolve("validation"));
+        malformedCheckpointedRowsAreValidationErrors();
+        System.out.println("IncrementalPipelineRunnerTest: OK");
+    }
+
+    private static void systemFailureThenResume(Path dir) throws Exception {
+        Path file = writePriceFile(Files.createDirectories(dir).resolve("EoDPrices_2025-08-01.csv"));
+        Path checkpointDir = Files.createDirectories(dir.resolve("checkpoints"));
+        LocalDate fileDate = LocalDate.of(2025, 8, 1);
+        IdempotencyKey key = IdempotencyKey.forFile(fileDate, file);
+
+        FlakyMappingSource source = new FlakyMappingSource();
+        InstrumentMapper mapper = new InstrumentMapper(source);
+        mapper.refresh();
+        ContentHashStore hashStore = ContentHashStore.open(dir.resolve("hashes.bin"));
+
+        try (FileBulkLoader loader = new FileBulkLoader(dir.resolve("beacon"), 100, 2)) {
+            IncrementalPipelineRunner runner = new IncrementalPipelineRunner(loader, mapper, hashStore,
+                    checkpointDir, new StagedPipelineExecutor(2, 1), CHUNK_SIZE);
+
+            // First run: the mapping source fails on the last chunk.
+            try {
+                runner.run(file, fileDate);
+                throw new AssertionError("first run should fail");
+            } catch (PipelineException e) {
+                check(e.getCategory() == ErrorCategory.SYSTEM, "expected a SYSTEM error, got " + e.getCategory());
+            }
+            check(!loader.isLoaded(key), "failed run was committed");
+            check(countFiles(checkpointDir) == 1, "checkpoint log of the failed run was not kept");
+            check(hashStore.size() == 0, "failed run saved content hashes");
+
+            // Resume on the same loader; it must neither block nor duplicate rows.
+            source.failing.set(false);
+            AtomicReference<Object> outcome = new AtomicReference<>();
+            Thread resume = new Thread(() -> {
+                try {
+                    outcome.set(runner.run(file, fileDate));
+                } catch (PipelineException | RuntimeException e) {
+                    outcome.set(e);
+                }
+            });
+            resume.setDaemon(true);
+            resume.start();
+            resume.join(TimeUnit.SECONDS.toMillis(30));
+            check(!resume.isAlive(), "resumed run did not finish within 30 s");
+            check(outcome.get() instanceof PipelineResult, "resumed run failed: " + outcome.get());
+
+            PipelineResult result = (PipelineResult) outcome.get();
+            check(result.getChunks() < ROWS / CHUNK_SIZE,
+                    "resumed run did not skip checkpointed chunks: " + result.getChunks() + " chunk(s) processed");
+            check(loader.isLoaded(key), "resumed run was not committed");
+            check(loader.availableBatchPermits() == 2, "batch permits leaked: " + loader.availableBatchPermits());
+            check(countFiles(checkpointDir) == 0, "checkpoint log was not deleted after commit");
+            check(hashStore.size() == ROWS, "expected " + ROWS + " content hashes, got " + hashStore.size());
+
+            Set<Long> sourceRows = liveSourceRows(dir.resolve("beacon").resolve("live").resolve(key.toString()));
+            check(sourceRows.size() == ROWS, "expected " + ROWS + " distinct live rows, got " + sourceRows.size());
+
+            // Running the same file again is a no-op.
+            check(runner.run(file, fileDate).getRows() == 0, "second load of a committed file was not a no-op");
+        }
+    }
+
+    /**
+     * A file rejected for duplicates must still lose its checkpoint log and
+     * report the duplicates, even if aborting the load fails unexpectedly.
+     */
+    private static void validationFailureSurvivesFailingAbort(Path dir) throws Exception {
+        Path file = writePriceFile(Files.createDirectories(dir).resolve("EoDPrices_2025-08-01.csv"));
+        Files.writeString(file, "EXT0,2025-01-01,1.0,usd,nyse\n", StandardOpenOption.APPEND);
+        Path checkpointDir = Files.createDirectories(dir.resolve("checkpoints"));
+
+        FlakyMappingSource source = new FlakyMappingSource();
+        source.failing.set(false);
+        InstrumentMapper mapper = new InstrumentMapper(source);
+        mapper.refresh();
+
+        try (FileBulkLoader loader = new FileBulkLoader(dir.resolve("beacon"), 100, 2)) {
+            IncrementalPipelineRunner runner = new IncrementalPipelineRunner(new FailingAbortLoader(loader), mapper,
+                    ContentHashStore.open(dir.resolve("hashes.bin")), checkpointDir, new StagedPipelineExecutor(2, 1),
+                    CHUNK_SIZE);
+            try {
+                runner.run(file, LocalDate.of(2025, 8, 1));
+                throw new AssertionError("a file with duplicates was loaded");
+            } catch (PipelineException e) {
+                check(e.getCategory() == ErrorCategory.VALIDATION, "expected a VALIDATION error, got " + e);
+                check(e.getMessage().contains("duplicate"), "original failure was replaced: " + e.getMessage());
+                check(e.getSuppressed().length == 1 && e.getSuppressed()[0] instanceof UncheckedIOException,
+                        "abort failure was not attached to the original failure");
+            }
+            check(countFiles(checkpointDir) == 0, "checkpoint log of a rejected file was kept");
+        }
+    }
+
+    private static void malformedCheckpointedRowsAreValidationErrors() throws Exception {
+        String[][] cases = {
+                { ",2025-08-01,1.0,usd,nyse", "instrument_id cannot be empty" },
+                { "EXT1,2025-13-01,1.0,usd,nyse", "invalid date '2025-13-01'" },
+                { "EXT1", "expected 5 columns" },
+        };
+        for (String[] c : cases) {
+            try (DuplicateKeyDetector detector = new DuplicateKeyDetector()) {
+                PriceChunk chunk = new PriceChunk(0, 2, c[0].length(), List.of(c[0]));
+                new ValidationStage(detector).registerCheckpointedChunk(chunk);
+                throw new AssertionError("checkpointed row '" + c[0] + "' was accepted");
+            } catch (PipelineException e) {
+                check(e.getCategory() == ErrorCategory.VALIDATION && e.getMessage().contains(c[1]),
+                        "unexpected error for checkpointed row '" + c[0] + "': " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes a file whose last chunk holds the only rows of
+     * {@link #LATE_INSTRUMENT}, an id missing from the bulk-loaded mappings.
+     */
+    private static Path writePriceFile(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder(EodCsvChunkReader.EXPECTED_HEADER).append('\n');
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            String instrument = i >= ROWS - 10 ? LATE_INSTRUMENT : "EXT" + (i % 100);
+            sb.append(instrument).append(',').append(start.plusDays(i / 100 + (i >= ROWS - 10 ? i : 0)))
+                    .append(',').append(i * 0.5).append(",usd,nyse\n");
+        }
+        return Files.writeString(file, sb);
+    }
+
+    private static long countFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static Set<Long> liveSourceRows(Path liveDir) throws IOException {
+        Set<Long> rows = new HashSet<>();
+        List<Path> batches;
+        try (Stream<Path> files = Files.list(liveDir)) {
+            batches = files.filter(p -> p.toString().endsWith(".jsonl")).toList();
+        }
+        for (Path batch : batches) {
+            for (String line : Files.readAllLines(batch)) {
+                int start = line.indexOf("\"sourceRow\":") + "\"sourceRow\":".length();
+                long row = Long.parseLong(line.substring(start, line.indexOf('}', start)));
+                check(rows.add(row), "row " + row + " was loaded twice");
+            }
+        }
+        return rows;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Loader whose sessions fail to abort, as an abort racing with its own
+     * batch writers once did.
+     */
+    private static final class FailingAbortLoader implements BulkLoader {
+        private final BulkLoader delegate;
+
+        FailingAbortLoader(BulkLoader delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public LoadSession begin(IdempotencyKey key) throws PipelineException {
+            return new FailingAbortSession(delegate.begin(key));
+        }
+
+        @Override
+        public LoadSession resume(IdempotencyKey key) throws PipelineException {
+            return new FailingAbortSession(delegate.resume(key));
+        }
+
+        @Override
+        public boolean isLoaded(IdempotencyKey key) {
+            return delegate.isLoaded(key);
+        }
+    }
+
+    private static final class FailingAbortSession implements LoadSession {
+        private final LoadSession delegate;
+
+        FailingAbortSession(LoadSession delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void load(PriceChunk chunk) throws PipelineException {
+            delegate.load(chunk);
+        }
+
+        @Override
+        public void commit() throws PipelineException {
+            delegate.commit();
+        }
+
+        @Override
+        public void abort() {
+            delegate.abort();
+            throw new UncheckedIOException(new NoSuchFileException("staging"));
+        }
+
+        @Override
+        public boolean isAlreadyLoaded() {
+            return delegate.isAlreadyLoaded();
+        }
+
+        @Override
+        public long getLoadedRows() {
+            return delegate.getLoadedRows();
+        }
+
+        @Override
+        public double getRowsPerSecond() {
+            return delegate.getRowsPerSecond();
+        }
+    }
+
+    /**
+     * Mapping source whose single lookups fail while {@code failing} is set.
+     * The failure is delayed so the earlier chunks are loaded and checkpointed
+     * before the run stops.
+     */
+    private static final class FlakyMappingSource implements InstrumentMappingSource {
+        final AtomicBoolean failing = new AtomicBoolean(true);
+
+        @Override
+        public Map<String, String> loadAll() {
+            Map<String, String> mappings = new HashMap<>();
+            for (int i = 0; i < 100; i++) {
+                mappings.put("EXT" + i, "INT" + i);
+            }
+            return mappings;
+        }
+
+        @Override
+        public String lookup(String externalId) throws IOException {
+            if (failing.get()) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Mapping service unavailable.");
+            }
+            return LATE_INSTRUMENT.equals(externalId) ? "INT-LATE" : null;
+        }
+    }
+}
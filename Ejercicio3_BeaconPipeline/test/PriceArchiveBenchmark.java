@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Compares re-reading archived prices from the original CSV files (chunked
+ * read, parse and validation with duplicate detection) with replaying the
+ * {@link PriceArchiveWriter} archives of the same rows.
+ * <p>
+ * Generates {@value #DAYS} daily files of {@value #ROWS_PER_DAY} rows, then
+ * reports the size of both formats and the median time, after warm-up, of a
+ * full replay with {@link PriceArchiveReader#replay} and
+ * {@link PriceArchiveReader#replayRows}, and of a one-week replay. Run from {@code Ejercicio3_BeaconPipeline}
+ * with Java 21:
+ *
+ * <pre>
+ * javac -d out *.java test/*.java
+ * java -cp out PriceArchiveBenchmark
+ * </pre>
+ * </p>
+ */
+public class PriceArchiveBenchmark {
+
+    private static final int DAYS = 60;
+    private static final int ROWS_PER_DAY = 10_000;
+    private static final int CHUNK_SIZE = 1_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 15;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 6, 2);
+
+    private static double sink;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("price-archive-benchmark");
+        Path csvDir = Files.createDirectories(dir.resolve("csv"));
+        Path archiveDir = Files.createDirectories(dir.resolve("archive"));
+        generate(csvDir, archiveDir);
+
+        LocalDate lastDay = FIRST_DAY.plusDays(DAYS - 1);
+        LocalDate weekEnd = FIRST_DAY.plusDays(6);
+        long csvBytes = directorySize(csvDir);
+        long archiveBytes = directorySize(archiveDir);
+
+        double csvMs = median(() -> parseAndValidate(csvDir));
+        double replayMs = median(() -> replay(archiveDir, FIRST_DAY, lastDay));
+        double replayRowsMs = median(() -> replayRows(archiveDir, FIRST_DAY, lastDay));
+        double weekMs = median(() -> replay(archiveDir, FIRST_DAY, weekEnd));
+        int weekFiles = PriceArchiveReader.replay(archiveDir, FIRST_DAY, weekEnd, record -> { });
+
+        System.out.printf(Locale.ROOT, "%d days x %d rows%n", DAYS, ROWS_PER_DAY);
+        System.out.printf(Locale.ROOT, "CSV size:                 %,12d bytes%n", csvBytes);
+        System.out.printf(Locale.ROOT, "Archive size:             %,12d bytes (%.1fx smaller)%n",
+                archiveBytes, (double) csvBytes / archiveBytes);
+        System.out.printf(Locale.ROOT, "CSV parse + validate:     %10.1f ms%n", csvMs);
+        System.out.printf(Locale.ROOT, "Archive full replay:      %10.1f ms (%.1fx faster)%n", replayMs, csvMs / replayMs);
+        System.out.printf(Locale.ROOT, "Archive full replayRows:  %10.1f ms (%.1fx faster)%n",
+                replayRowsMs, csvMs / replayRowsMs);
+        System.out.printf(Locale.ROOT, "Archive one-week replay:  %10.1f ms (%d of %d files decoded)%n",
+                weekMs, weekFiles, DAYS);
+
+        for (Path file : list(csvDir, "")) {
+            Files.delete(file);
+        }
+        for (Path file : list(archiveDir, "")) {
+            Files.delete(file);
+        }
+        Files.delete(csvDir);
+        Files.delete(archiveDir);
+        Files.delete(dir);
+    }
+
+    private static void generate(Path csvDir, Path archiveDir) throws IOException {
+        Random random = new Random(42);
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            StringBuilder csv = new StringBuilder(ROWS_PER_DAY * 48).append(EodCsvChunkReader.EXPECTED_HEADER)
+                    .append('\n');
+            try (PriceArchiveWriter writer = new PriceArchiveWriter(archiveDir.resolve("EoDPrices_" + date + ".eodc"))) {
+                for (int i = 0; i < ROWS_PER_DAY; i++) {
+                    String instrument = "ISIN" + (100_000 + i);
+                    double price = (1_000 + random.nextInt(9_000_000)) / 100.0;
+                    String currency = i % 3 == 0 ? "EUR" : "USD";
+                    String market = i % 5 == 0 ? "XETR" : "XNYS";
+                    csv.append(instrument).append(',').append(date).append(',').append(price).append(',')
+                            .append(currency).append(',').append(market).append('\n');
+                    writer.append(new PriceRecord(i + 2, instrument, date.toEpochDay(), price, currency, market));
+                }
+            }
+            Files.writeString(csvDir.resolve("EoDPrices_" + date + ".csv"), csv);
+        }
+    }
+
+    private static void parseAndValidate(Path csvDir) throws Exception {
+        for (Path file : list(csvDir, ".csv")) {
+            try (EodCsvChunkReader reader = new EodCsvChunkReader(file, CHUNK_SIZE);
+                    DuplicateKeyDetector detector = new DuplicateKeyDetector()) {
+                ValidationStage validation = new ValidationStage(detector);
+                PriceChunk chunk;
+                while ((chunk = reader.nextChunk()) != null) {
+                    for (PriceRecord record : validation.process(chunk).getRecords()) {
+                        sink += record.getPrice();
+                    }
+                }
+                validation.finish();
+            }
+        }
+    }
+
+    private static void replay(Path archiveDir, LocalDate from, LocalDate to) throws IOException {
+        PriceArchiveReader.replay(archiveDir, from, to, record -> sink += record.getPrice());
+    }
+
+    private static void replayRows(Path archiveDir, LocalDate from, LocalDate to) throws IOException {
+        PriceArchiveReader.replayRows(archiveDir, from, to,
+                (rowNumber, instrumentId, epochDay, price, currency, market) -> sink += price);
+    }
+
+    private static double median(Task task) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.run();
+        }
+        double[] millis = new double[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[MEASURED_ROUNDS / 2];
+    }
+
+    private static Path[] list(Path dir, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(suffix)).sorted().toArray(Path[]::new);
+        }
+    }
+
+    private static long directorySize(Path dir) throws IOException {
+        long size = 0;
+        for (Path file : list(dir, "")) {
+            size += Files.size(file);
+        }
+        return size;
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,129 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Failure-path checks of {@link StagedPipelineExecutor}: an {@link Error} thrown
+ * by a stage or by the reader must fail the run as {@link ErrorCategory#SYSTEM}
+ * and abort the transaction instead of leaving the workers waiting forever.
+ * <p>
+ * Run from {@code Ejercicio3_BeaconPipeline} with Java 21:
+ *
+ * <pre>
+ * javac -d out *.java test/*.java
+ * java -cp out StagedPipelineExecutorTest
+ * </pre>
+ * </p>
+ */
+public class StagedPipelineExecutorTest {
+
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("staged-executor-test", ".csv");
+        StringBuilder sb = new StringBuilder(EodCsvChunkReader.EXPECTED_HEADER).append('\n');
+        for (int i = 0; i < 1_000; i++) {
+            sb.append("EXT").append(i).append(",2025-08-01,1.5,USD,NYSE\n");
+        }
+        Files.writeString(file, sb);
+
+        stageErrorFailsRun(file);
+        readerErrorFailsRun(file);
+        System.out.println("StagedPipelineExecutorTest: OK");
+    }
+
+    private static void stageErrorFailsRun(Path file) throws Exception {
+        PipelineStage failing = new PassThroughStage("failing") {
+            @Override
+            public PriceChunk process(PriceChunk chunk) {
+                throw new AssertionError("stage bug");
+            }
+        };
+        try (EodCsvChunkReader reader = new EodCsvChunkReader(file, 100)) {
+            expectSystemFailure(reader, List.of(new PassThroughStage("first"), failing, new PassThroughStage("last")),
+                    "stage error");
+        }
+    }
+
+    private static void readerErrorFailsRun(Path file) throws Exception {
+        try (EodCsvChunkReader reader = new EodCsvChunkReader(file, 100) {
+            private int chunks;
+
+            @Override
+            public PriceChunk nextChunk() throws IOException, PipelineException {
+                if (++chunks == 3) {
+                    throw new StackOverflowError();
+                }
+                return super.nextChunk();
+            }
+        }) {
+            expectSystemFailure(reader, List.of(new PassThroughStage("first"), new PassThroughStage("last")),
+                    "reader error");
+        }
+    }
+
+    private static void expectSystemFailure(EodCsvChunkReader reader, List<PipelineStage> stages, String what)
+            throws InterruptedException {
+        RecordingTransaction transaction = new RecordingTransaction();
+        AtomicReference<Object> outcome = new AtomicReference<>();
+        Thread runner = new Thread(() -> {
+            try {
+                outcome.set(new StagedPipelineExecutor(2, 2).run(reader, stages, transaction));
+            } catch (PipelineException | RuntimeException e) {
+                outcome.set(e);
+            }
+        });
+        // A hung run must not keep the JVM alive after the check fails.
+        runner.setDaemon(true);
+        runner.start();
+        runner.join(TimeUnit.SECONDS.toMillis(10));
+        check(!runner.isAlive(), "run() did not return after a " + what);
+        check(outcome.get() instanceof PipelineException, "expected a PipelineException after a " + what
+                + ", got " + outcome.get());
+        check(((PipelineException) outcome.get()).getCategory() == ErrorCategory.SYSTEM,
+                "expected a SYSTEM error after a " + what);
+        check(transaction.aborted.get() && !transaction.committed.get(),
+                "transaction was not aborted after a " + what);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private static class PassThroughStage implements PipelineStage {
+        private final String name;
+
+        PassThroughStage(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public PriceChunk process(PriceChunk chunk) throws PipelineException {
+            return chunk;
+        }
+    }
+
+    private static final class RecordingTransaction implements PipelineTransaction {
+        final AtomicBoolean committed = new AtomicBoolean();
+        final AtomicBoolean aborted = new AtomicBoolean();
+
+        @Override
+        public void commit() {
+            committed.set(true);
+        }
+
+        @Override
+        public void abort() {
+            aborted.set(true);
+        }
+    }
+}